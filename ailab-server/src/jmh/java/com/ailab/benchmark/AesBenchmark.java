@@ -0,0 +1,96 @@
+package com.ailab.benchmark;
+
+import com.ailab.common.component.AesCipher;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AES加解密基准测试
+ * legacy开头的方法为原AesUtils的实现（每次调用解码密钥、创建Cipher、获取强随机数生成器），作为对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class AesBenchmark {
+
+    private static final String KEY = "RHVOP9jOPW4Hl+twdFvg1v+6HKYr99Gs2V8MAwFx35k=";
+    private static final String EMAIL = "student2025001@example.com";
+
+    private AesCipher aesCipher;
+    private String encrypted;
+    private String[] roster;
+
+    @Setup
+    public void setup() {
+        aesCipher = new AesCipher(KEY);
+        encrypted = aesCipher.encrypt(EMAIL);
+        roster = new String[500];
+        for (int i = 0; i < roster.length; i++) {
+            roster[i] = aesCipher.encrypt("student" + i + "@example.com");
+        }
+    }
+
+    /**
+     * 模拟500人名单的批量解密
+     */
+    @Benchmark
+    @OperationsPerInvocation(500)
+    public List<String[]> decryptRoster() {
+        List<String[]> rows = new ArrayList<>(roster.length);
+        for (String email : roster) {
+            rows.add(new String[]{email});
+        }
+        aesCipher.decryptAll(rows, row -> row[0], (row, email) -> row[0] = email);
+        return rows;
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return aesCipher.encrypt(EMAIL);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return aesCipher.decrypt(encrypted);
+    }
+
+    @Benchmark
+    public String legacyEncrypt() throws Exception {
+        SecretKeySpec secretKey = new SecretKeySpec(Base64.getDecoder().decode(KEY), "AES");
+        byte[] iv = new byte[16];
+        SecureRandom.getInstanceStrong().nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        byte[] encryptedBytes = cipher.doFinal(EMAIL.getBytes(StandardCharsets.UTF_8));
+        byte[] encryptedIVAndText = new byte[iv.length + encryptedBytes.length];
+        System.arraycopy(iv, 0, encryptedIVAndText, 0, iv.length);
+        System.arraycopy(encryptedBytes, 0, encryptedIVAndText, iv.length, encryptedBytes.length);
+        return Base64.getEncoder().encodeToString(encryptedIVAndText);
+    }
+
+    @Benchmark
+    public String legacyDecrypt() throws Exception {
+        SecretKeySpec secretKey = new SecretKeySpec(Base64.getDecoder().decode(KEY), "AES");
+        byte[] encryptedIVAndText = Base64.getDecoder().decode(encrypted);
+        byte[] iv = new byte[16];
+        byte[] encryptedBytes = new byte[encryptedIVAndText.length - iv.length];
+        System.arraycopy(encryptedIVAndText, 0, iv, 0, iv.length);
+        System.arraycopy(encryptedIVAndText, iv.length, encryptedBytes, 0, encryptedBytes.length);
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv));
+        return new String(cipher.doFinal(encryptedBytes), StandardCharsets.UTF_8);
+    }
+}
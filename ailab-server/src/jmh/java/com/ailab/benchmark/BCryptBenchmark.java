@@ -0,0 +1,41 @@
+package com.ailab.benchmark;
+
+import com.ailab.common.util.BCryptUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同加密强度下BCrypt加密与校验的单次耗时，用于确定ailab.bcrypt.cost和登录校验线程数
+ * 强度每加1耗时翻倍，登录接口的单核吞吐约为 1000 / 单次校验耗时（毫秒）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BCryptBenchmark {
+
+    private static final String PASSWORD = "Passw0rd!2024";
+
+    @Param({"4", "8", "10", "12"})
+    public int cost;
+
+    private String hashed;
+
+    @Setup
+    public void setup() {
+        hashed = BCryptUtils.hashData(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public String hash() {
+        return BCryptUtils.hashData(PASSWORD, cost);
+    }
+
+    @Benchmark
+    public boolean check() {
+        return BCryptUtils.checkData(PASSWORD, hashed);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ailab.benchmark;
+
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.util.JwtUtils;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问令牌签发与解析基准测试，覆盖JwtUtils的三个静态入口（内部复用按密钥缓存的JwtTokenEngine）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class JwtBenchmark {
+
+    private static final String SECRET_KEY = "ailabsecretkeyqwertyuiopasdfghjkl";
+    private static final long EXPIRATION = 7200000L;
+
+    private Map<String, Object> data;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setup() {
+        AuthLoginInfo loginInfo = AuthLoginInfo.builder()
+                .id(2025001L)
+                .accountName("student2025001")
+                .role(UserRoleEnum.USER)
+                .build();
+        data = Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, loginInfo);
+        token = JwtUtils.createToken(SECRET_KEY, EXPIRATION, data);
+        claims = JwtUtils.parseToken(token, SECRET_KEY);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return JwtUtils.createToken(SECRET_KEY, EXPIRATION, data);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return JwtUtils.parseToken(token, SECRET_KEY);
+    }
+
+    @Benchmark
+    public AuthLoginInfo getObjectFromClaims() {
+        return JwtUtils.getObjectFromClaims(claims, AuthConstant.JWT_CLAIMS_USER_INFO, AuthLoginInfo.class);
+    }
+
+    /**
+     * 拦截器缓存未命中时的完整校验：解析签名后读取用户信息
+     */
+    @Benchmark
+    public AuthLoginInfo parseAndRead() {
+        Claims parsed = JwtUtils.parseToken(token, SECRET_KEY);
+        return JwtUtils.getObjectFromClaims(parsed, AuthConstant.JWT_CLAIMS_USER_INFO, AuthLoginInfo.class);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ailab.benchmark;
+
+import com.ailab.common.util.RegexUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 邮箱与密码格式校验基准测试
+ * legacy开头的方法为原RegexUtils的实现（String.matches每次重新编译正则），作为对照
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegexBenchmark {
+
+    private static final String EMAIL_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+    private static final String PASSWORD_REGEX = "^(?=.*[a-zA-Z])(?=.*\\d)[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?.]{8,16}$";
+
+    @Param({"student2025001@example.com", "not-an-email@example"})
+    public String email;
+
+    @Param({"Passw0rd!2024"})
+    public String password;
+
+    @Benchmark
+    public boolean emailScanner() {
+        return RegexUtils.isValidEmail(email);
+    }
+
+    @Benchmark
+    public boolean emailPattern() {
+        return RegexUtils.isValidEmailByRegex(email);
+    }
+
+    @Benchmark
+    public boolean legacyEmail() {
+        return email.matches(EMAIL_REGEX);
+    }
+
+    @Benchmark
+    public boolean password() {
+        return RegexUtils.isValidPassword(password);
+    }
+
+    @Benchmark
+    public boolean legacyPassword() {
+        return password.matches(PASSWORD_REGEX);
+    }
+}
@@ -0,0 +1,108 @@
+package com.ailab.benchmark;
+
+import com.ailab.common.cache.TokenCache;
+import com.ailab.common.cache.TokenRevocationList;
+import com.ailab.common.component.JwtTokenEngine;
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.properties.JwtProperties;
+import com.ailab.common.properties.TokenCacheProperties;
+import com.ailab.interceptor.TokenInterceptor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenInterceptor.preHandle完整流程基准测试，使用模拟的请求和响应对象
+ * cacheEnabled为false时每次都校验签名并解析载荷，对应已验证令牌缓存未命中的情况
+ * 吊销表只在内存中读取，不连接Redis
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TokenInterceptorBenchmark {
+
+    private static final String SECRET_KEY = "ailabsecretkeyqwertyuiopasdfghjkl";
+    private static final String TOKEN_NAME = "accessToken";
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private TokenInterceptor interceptor;
+    private HandlerMethod handler;
+    private String token;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setSecretKey(SECRET_KEY);
+        jwtProperties.setAccessTokenName(TOKEN_NAME);
+        jwtProperties.setAccessTokenExpiration(7200000L);
+        TokenCacheProperties tokenCacheProperties = new TokenCacheProperties();
+        tokenCacheProperties.setEnabled(cacheEnabled);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        JwtTokenEngine engine = new JwtTokenEngine(SECRET_KEY);
+        TokenRevocationList revocationList = new TokenRevocationList(new StringRedisTemplate(),
+                new LettuceConnectionFactory(), jwtProperties, meterRegistry);
+        interceptor = new TokenInterceptor(jwtProperties, engine, new TokenCache(tokenCacheProperties, meterRegistry),
+                revocationList, meterRegistry);
+        handler = new HandlerMethod(new Endpoint(), Endpoint.class.getMethod("handle"));
+
+        AuthLoginInfo loginInfo = AuthLoginInfo.builder()
+                .id(2025001L)
+                .accountName("student2025001")
+                .role(UserRoleEnum.USER)
+                .build();
+        token = engine.createToken(jwtProperties.getAccessTokenExpiration(),
+                Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, loginInfo));
+    }
+
+    /**
+     * 每个线程复用一组请求和响应对象，排除模拟对象本身的创建开销
+     */
+    @State(Scope.Thread)
+    public static class Exchange {
+        MockHttpServletRequest request;
+        MockHttpServletRequest anonymousRequest;
+        MockHttpServletResponse response;
+
+        @Setup
+        public void setup(TokenInterceptorBenchmark benchmark) {
+            request = new MockHttpServletRequest("GET", "/api/user/2025001");
+            request.addHeader(TOKEN_NAME, benchmark.token);
+            anonymousRequest = new MockHttpServletRequest("GET", "/api/user/2025001");
+            response = new MockHttpServletResponse();
+        }
+    }
+
+    @Benchmark
+    public boolean validToken(Exchange exchange) throws Exception {
+        boolean passed = interceptor.preHandle(exchange.request, exchange.response, handler);
+        interceptor.afterCompletion(exchange.request, exchange.response, handler, null);
+        return passed;
+    }
+
+    @Benchmark
+    public boolean missingToken(Exchange exchange) throws Exception {
+        return interceptor.preHandle(exchange.anonymousRequest, exchange.response, handler);
+    }
+
+    public static class Endpoint {
+        public String handle() {
+            return "ok";
+        }
+    }
+}
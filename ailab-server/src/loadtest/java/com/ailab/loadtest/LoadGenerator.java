@@ -0,0 +1,319 @@
+package com.ailab.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 混合登录/读取负载的压测工具，用于对比平台线程与虚拟线程模式的吞吐量和延迟
+ * <p>
+ * 运行方式（服务端需提前启动）：
+ * mvn -Ploadtest test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ailab.loadtest.LoadGenerator
+ * -Dload.label=virtual -Dload.accounts=admin:123456,user1:123456
+ * 无法连接实验室数据库时可使用离线压测：mvn -Ploadtest test，见LoadTestRunnerTests
+ * <p>
+ * 可选参数：
+ * load.baseUrl 服务地址，默认http://localhost:8080
+ * load.accounts 压测账号，格式为 账户名:密码，多个用逗号分隔
+ * load.concurrency 并发客户端数，默认64
+ * load.warmupSeconds 预热时长，默认10秒，预热期间的请求不计入统计
+ * load.durationSeconds 统计时长，默认60秒
+ * load.mix 请求比例，默认login:1,info:5,page:3,refresh:1
+ * load.label 本次压测的标签，例如platform、virtual
+ * load.report 报告文件，默认target/loadtest-report.md，每次追加写入便于对比
+ */
+public class LoadGenerator {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    enum Op {LOGIN, INFO, PAGE, REFRESH}
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<String[]> accounts;
+    private final Op[] schedule;
+
+    public LoadGenerator(String baseUrl, List<String[]> accounts, Op[] schedule) {
+        this.baseUrl = baseUrl;
+        this.accounts = accounts;
+        this.schedule = schedule;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.baseUrl", "http://localhost:8080");
+        List<String[]> accounts = parseAccounts(System.getProperty("load.accounts", "admin:123456"));
+        runAndReport(baseUrl, accounts);
+    }
+
+    /**
+     * 按系统属性中的并发数、时长和请求比例预热并压测，结果输出到控制台并追加到报告文件
+     *
+     * @param baseUrl
+     * @param accounts 压测账号，每项为 {账户名, 密码}
+     * @return 统计时长内的压测结果
+     * @throws Exception
+     */
+    public static Result runAndReport(String baseUrl, List<String[]> accounts) throws Exception {
+        int concurrency = Integer.getInteger("load.concurrency", 64);
+        int warmupSeconds = Integer.getInteger("load.warmupSeconds", 10);
+        int durationSeconds = Integer.getInteger("load.durationSeconds", 60);
+        Op[] schedule = parseMix(System.getProperty("load.mix", "login:1,info:5,page:3,refresh:1"));
+        String label = System.getProperty("load.label", "default");
+        Path report = Path.of(System.getProperty("load.report", "target/loadtest-report.md"));
+
+        LoadGenerator generator = new LoadGenerator(baseUrl, accounts, schedule);
+        System.out.printf("预热 %d 秒，并发 %d%n", warmupSeconds, concurrency);
+        generator.run(concurrency, Duration.ofSeconds(warmupSeconds));
+        System.out.printf("压测 %d 秒，并发 %d%n", durationSeconds, concurrency);
+        Result result = generator.run(concurrency, Duration.ofSeconds(durationSeconds));
+
+        String text = result.format(label, concurrency);
+        System.out.print(text);
+        if (report.getParent() != null) {
+            Files.createDirectories(report.getParent());
+        }
+        Files.writeString(report, text, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return result;
+    }
+
+    /**
+     * 以固定并发持续发送请求直到时间结束
+     *
+     * @param concurrency
+     * @param duration
+     * @return
+     * @throws InterruptedException
+     */
+    public Result run(int concurrency, Duration duration) throws InterruptedException {
+        Result result = new Result(duration);
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Client client = new Client(accounts.get(i % accounts.size()), i);
+            executor.execute(() -> client.loop(deadline, result));
+        }
+        executor.shutdown();
+        executor.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        return result;
+    }
+
+    /**
+     * 单个压测客户端，持有自己的访问令牌和刷新令牌
+     */
+    private class Client {
+        private final String accountName;
+        private final String password;
+        private int cursor;
+        private Long userId;
+        private String accessToken;
+        private String refreshCookie;
+
+        Client(String[] account, int offset) {
+            this.accountName = account[0];
+            this.password = account[1];
+            this.cursor = offset;
+        }
+
+        void loop(long deadline, Result result) {
+            while (System.nanoTime() < deadline) {
+                // 没有令牌时先登录
+                Op op = accessToken == null ? Op.LOGIN : schedule[cursor++ % schedule.length];
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = execute(op);
+                } catch (IOException e) {
+                    ok = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                result.record(op, System.nanoTime() - start, ok);
+            }
+        }
+
+        private boolean execute(Op op) throws IOException, InterruptedException {
+            return switch (op) {
+                case LOGIN -> login();
+                case INFO -> get("/api/user/" + userId);
+                case PAGE -> get("/api/user/page?pageNum=1&pageSize=10");
+                case REFRESH -> refresh();
+            };
+        }
+
+        private boolean login() throws IOException, InterruptedException {
+            String body = OBJECT_MAPPER.writeValueAsString(Map.of("accountName", accountName, "password", password));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonNode data = successData(response);
+            if (data == null) {
+                return false;
+            }
+            userId = data.path("id").asLong();
+            accessToken = data.path("accessToken").asText();
+            response.headers().allValues("Set-Cookie").stream()
+                    .filter(cookie -> cookie.startsWith("refreshToken="))
+                    .findFirst()
+                    .ifPresent(cookie -> refreshCookie = cookie.split(";", 2)[0]);
+            return true;
+        }
+
+        private boolean refresh() throws IOException, InterruptedException {
+            if (refreshCookie == null) {
+                return login();
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/refresh"))
+                    .header("Cookie", refreshCookie)
+                    .GET()
+                    .build();
+            JsonNode data = successData(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+            if (data == null) {
+                accessToken = null;
+                return false;
+            }
+            accessToken = data.path("accessToken").asText();
+            return true;
+        }
+
+        private boolean get(String path) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("accessToken", accessToken)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 401) {
+                accessToken = null;
+            }
+            return successData(response) != null;
+        }
+    }
+
+    private static JsonNode successData(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        JsonNode root = OBJECT_MAPPER.readTree(response.body());
+        return root.path("code").asInt() == 1 ? root.path("data") : null;
+    }
+
+    /**
+     * 压测结果，按请求类型记录延迟
+     */
+    public static class Result {
+        private final Duration duration;
+        private final Map<Op, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(Op.class);
+        private final Map<Op, AtomicLong> errors = new EnumMap<>(Op.class);
+
+        Result(Duration duration) {
+            this.duration = duration;
+            for (Op op : Op.values()) {
+                latencies.put(op, new ConcurrentLinkedQueue<>());
+                errors.put(op, new AtomicLong());
+            }
+        }
+
+        void record(Op op, long nanos, boolean ok) {
+            latencies.get(op).add(nanos);
+            if (!ok) {
+                errors.get(op).incrementAndGet();
+            }
+        }
+
+        /**
+         * @return 统计时长内的请求总数
+         */
+        public long total() {
+            return latencies.values().stream().mapToLong(ConcurrentLinkedQueue::size).sum();
+        }
+
+        /**
+         * @return 统计时长内的失败请求数
+         */
+        public long errors() {
+            return errors.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+
+        String format(String label, int concurrency) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%n### %s（并发%d，%d秒，%s）%n%n", label, concurrency, duration.toSeconds(), LocalDateTime.now()));
+            sb.append("| 请求 | 次数 | 错误 | 吞吐(req/s) | p50(ms) | p90(ms) | p99(ms) | max(ms) |\n");
+            sb.append("|---|---|---|---|---|---|---|---|\n");
+            List<Long> all = new ArrayList<>();
+            long allErrors = 0;
+            for (Op op : Op.values()) {
+                List<Long> values = new ArrayList<>(latencies.get(op));
+                all.addAll(values);
+                allErrors += errors.get(op).get();
+                appendRow(sb, op.name().toLowerCase(), values, errors.get(op).get());
+            }
+            appendRow(sb, "total", all, allErrors);
+            return sb.toString();
+        }
+
+        private void appendRow(StringBuilder sb, String name, List<Long> values, long errorCount) {
+            if (values.isEmpty()) {
+                return;
+            }
+            Collections.sort(values);
+            double throughput = values.size() / (double) duration.toSeconds();
+            sb.append(String.format("| %s | %d | %d | %.1f | %.2f | %.2f | %.2f | %.2f |%n", name, values.size(), errorCount,
+                    throughput, percentile(values, 0.50), percentile(values, 0.90), percentile(values, 0.99),
+                    values.get(values.size() - 1) / 1e6));
+        }
+
+        private static double percentile(List<Long> sorted, double p) {
+            int index = (int) Math.ceil(p * sorted.size()) - 1;
+            return sorted.get(Math.max(index, 0)) / 1e6;
+        }
+    }
+
+    private static List<String[]> parseAccounts(String value) {
+        List<String[]> accounts = new ArrayList<>();
+        for (String account : value.split(",")) {
+            String[] parts = account.trim().split(":", 2);
+            if (parts.length == 2) {
+                accounts.add(parts);
+            }
+        }
+        if (accounts.isEmpty()) {
+            throw new IllegalArgumentException("load.accounts格式错误，应为 账户名:密码");
+        }
+        return accounts;
+    }
+
+    private static Op[] parseMix(String value) {
+        List<Op> schedule = new ArrayList<>();
+        for (String item : value.split(",")) {
+            String[] parts = item.trim().split(":");
+            Op op = Op.valueOf(parts[0].toUpperCase());
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            for (int i = 0; i < weight; i++) {
+                schedule.add(op);
+            }
+        }
+        // 打散顺序，避免同类请求集中
+        Collections.shuffle(schedule, new Random(42));
+        return schedule.toArray(new Op[0]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.ailab.loadtest;
+
+import com.ailab.common.component.AesCipher;
+import com.ailab.common.component.BlindIndexer;
+import com.ailab.common.component.PasswordHasher;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.enums.UserStatusEnum;
+import com.github.fppt.jedismock.RedisServer;
+import jakarta.annotation.Resource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 离线端到端压测：在随机端口启动完整应用，数据库和Redis使用本地替代实现，写入压测用户后运行LoadGenerator
+ * <p>
+ * 运行方式：mvn -Ploadtest test
+ * <p>
+ * 可选参数（其余参数见LoadGenerator）：
+ * load.users 写入的用户数，默认2000，压测客户端依次使用这些账号登录
+ * load.admins 其中管理员的数量，默认10
+ */
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LoadTestRunnerTests {
+
+	private static final String PASSWORD = "Passw0rd!2024";
+	private static final int SEED_BATCH_SIZE = 500;
+
+	// 进程内Redis在应用上下文创建前启动，随测试进程退出，避免上下文关闭前断开连接
+	private static final RedisServer REDIS = startRedis();
+
+	@LocalServerPort
+	private int port;
+
+	@Resource
+	private JdbcTemplate jdbcTemplate;
+	@Resource
+	private PasswordHasher passwordHasher;
+	@Resource
+	private AesCipher aesCipher;
+	@Resource
+	private BlindIndexer blindIndexer;
+
+	private static RedisServer startRedis() {
+		try {
+			return RedisServer.newRedisServer(0).start();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@DynamicPropertySource
+	static void redisProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.data.redis.port", REDIS::getBindPort);
+	}
+
+	@Test
+	public void runLoadTest() throws Exception {
+		int users = Integer.getInteger("load.users", 2000);
+		int admins = Integer.getInteger("load.admins", 10);
+		List<String[]> accounts = seedUsers(users, admins);
+
+		LoadGenerator.Result result = LoadGenerator.runAndReport("http://localhost:" + port, accounts);
+
+		assertTrue(result.total() > 0);
+		assertTrue(result.errors() < result.total(), "压测请求全部失败");
+	}
+
+	/**
+	 * 写入压测用户，所有用户使用相同的密码，只加密一次以缩短准备时间
+	 *
+	 * @param users
+	 * @param admins 前admins个用户为管理员
+	 * @return 账号列表，每项为 {账户名, 密码}
+	 */
+	private List<String[]> seedUsers(int users, int admins) {
+		String hashedPassword = passwordHasher.hash(PASSWORD);
+		List<String[]> accounts = new ArrayList<>(users);
+		List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (int i = 1; i <= users; i++) {
+			String accountName = String.format("lt%07d", i);
+			UserRoleEnum role = i <= admins ? UserRoleEnum.ADMIN : UserRoleEnum.USER;
+			String email = accountName + "@example.com";
+			batch.add(new Object[]{accountName, hashedPassword, "压测用户" + i, aesCipher.encrypt(email),
+					blindIndexer.index(email), role.getValue(),
+					String.format("2025%07d", i), UserStatusEnum.ENABLED.getValue()});
+			accounts.add(new String[]{accountName, PASSWORD});
+			if (batch.size() == SEED_BATCH_SIZE || i == users) {
+				jdbcTemplate.batchUpdate("INSERT INTO user (account_name, password, name, email, email_index, role, sno, status) "
+						+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+				batch.clear();
+			}
+		}
+		return accounts;
+	}
+}
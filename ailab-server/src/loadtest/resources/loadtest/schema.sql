@@ -0,0 +1,18 @@
+-- 与User类中的建表语句一致，索引单独创建以兼容H2；邮箱存储密文，长度按密文放宽
+CREATE TABLE IF NOT EXISTS user
+(
+    id           BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '用户id',
+    account_name VARCHAR(11)  NOT NULL UNIQUE COMMENT '账户名',
+    password     VARCHAR(100) NOT NULL COMMENT '密码，加密存储',
+    name         VARCHAR(11)  NOT NULL COMMENT '用户姓名',
+    email        VARCHAR(128) COMMENT '用户邮箱',
+    email_index  CHAR(43) COMMENT '邮箱盲索引，小写邮箱的HMAC-SHA256',
+    role         TINYINT      NOT NULL COMMENT '身份权限，1管理员，0普通用户',
+    sno          CHAR(11) UNIQUE COMMENT '学号',
+    status       TINYINT      NOT NULL DEFAULT 0 COMMENT '账号状态，0禁用，1启用',
+    create_time  DATETIME              DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time  DATETIME              DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT '用户表';
+
+CREATE INDEX IF NOT EXISTS idx_user_create_time ON user (create_time, account_name, id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_user_email_index ON user (email_index);
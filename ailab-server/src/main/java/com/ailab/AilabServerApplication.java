@@ -3,9 +3,11 @@ package com.ailab;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.ailab.mapper")
+@EnableScheduling
 public class AilabServerApplication {
 
 	public static void main(String[] args) {
@@ -12,9 +12,9 @@ import java.lang.annotation.Target;
 public @interface Permissions {
 
     /**
-     * 权限类型
+     * 权限类型，满足其中任意一个即可访问，拥有上级身份（如管理员）的用户同样可以访问
      *
      * @return
      */
-    UserRoleEnum value();
+    UserRoleEnum[] value();
 }
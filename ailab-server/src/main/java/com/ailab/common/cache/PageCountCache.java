@@ -0,0 +1,128 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.enums.PageCountModeEnum;
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.PageCountProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 分页查询总记录数缓存
+ * 按查询形态缓存总记录数，本地缓存在前，Redis在后（每张表一个hash，字段为查询形态），表数据变更时整表失效
+ */
+@Slf4j
+@Component
+public class PageCountCache {
+
+    private static final String SHAPE_SEPARATOR = "#";
+
+    private final PageCountProperties pageCountProperties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, Count> localCache;
+
+    public PageCountCache(PageCountProperties pageCountProperties, StringRedisTemplate stringRedisTemplate,
+                          MeterRegistry meterRegistry) {
+        this.pageCountProperties = pageCountProperties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(pageCountProperties.getLocalTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "page-count");
+    }
+
+    /**
+     * 获取总记录数
+     *
+     * @param table     表名
+     * @param shape     查询形态，相同形态的查询总记录数相同，例如查询条件的组合
+     * @param counter   精确统计
+     * @param estimator 根据表统计信息估算，仅用于不带查询条件的形态，不支持时传null
+     * @return
+     */
+    public Count getTotal(String table, String shape, Supplier<Long> counter, Supplier<Long> estimator) {
+        if (pageCountProperties.getMode() == PageCountModeEnum.EXACT) {
+            return new Count(counter.get(), true);
+        }
+        return localCache.get(table + SHAPE_SEPARATOR + shape, key -> load(table, shape, counter, estimator));
+    }
+
+    /**
+     * 使指定表的全部总记录数缓存失效，表数据新增或变更时调用
+     *
+     * @param table
+     */
+    public void invalidate(String table) {
+        String prefix = table + SHAPE_SEPARATOR;
+        localCache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        try {
+            stringRedisTemplate.delete(RedisEnum.PAGE_COUNT.getKey() + table);
+        } catch (Exception e) {
+            log.warn("删除总记录数缓存失败，表：{}，{}", table, e.getMessage());
+        }
+    }
+
+    private Count load(String table, String shape, Supplier<Long> counter, Supplier<Long> estimator) {
+        String redisKey = RedisEnum.PAGE_COUNT.getKey() + table;
+
+        // 查询Redis，格式为 总数:是否精确
+        Count count = readRedis(redisKey, shape);
+        if (count != null) {
+            return count;
+        }
+
+        if (pageCountProperties.getMode() == PageCountModeEnum.APPROXIMATE && estimator != null) {
+            Long estimate = estimator.get();
+            if (estimate != null && estimate >= pageCountProperties.getApproximateThreshold()) {
+                count = new Count(estimate, false);
+            }
+        }
+        if (count == null) {
+            count = new Count(counter.get(), true);
+        }
+
+        writeRedis(redisKey, shape, count);
+        return count;
+    }
+
+    private Count readRedis(String redisKey, String shape) {
+        try {
+            Object value = stringRedisTemplate.opsForHash().get(redisKey, shape);
+            if (value == null) {
+                return null;
+            }
+            String[] parts = value.toString().split(":");
+            return new Count(Long.parseLong(parts[0]), Boolean.parseBoolean(parts[1]));
+        } catch (Exception e) {
+            log.warn("读取总记录数缓存失败，{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String redisKey, String shape, Count count) {
+        try {
+            stringRedisTemplate.opsForHash().put(redisKey, shape, count.total() + ":" + count.exact());
+            stringRedisTemplate.expire(redisKey, RedisEnum.PAGE_COUNT.getTtl(), RedisEnum.PAGE_COUNT.getTimeUnit());
+        } catch (Exception e) {
+            log.warn("写入总记录数缓存失败，{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 总记录数
+     *
+     * @param total 总记录数
+     * @param exact 是否为精确值，false表示根据表统计信息估算
+     */
+    public record Count(long total, boolean exact) {
+    }
+}
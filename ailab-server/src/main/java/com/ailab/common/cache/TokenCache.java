@@ -0,0 +1,157 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.properties.TokenCacheProperties;
+import com.ailab.common.util.InstancePool;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已验证访问令牌缓存
+ * 以令牌的SHA-256摘要为键，缓存项最迟在令牌过期时失效，命中时无需再次校验签名和解析载荷
+ */
+@Component
+public class TokenCache {
+
+    // 复用的摘要实例，计算完成后自动重置
+    private static final InstancePool<MessageDigest> DIGESTS = new InstancePool<>(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    private final boolean enabled;
+    private final Cache<String, Entry> cache;
+    private final Timer hitTimer;
+    private final Timer missTimer;
+
+    public TokenCache(TokenCacheProperties tokenCacheProperties, MeterRegistry meterRegistry) {
+        this.enabled = tokenCacheProperties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(tokenCacheProperties.getMaximumSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "token");
+        this.hitTimer = lookupTimer(meterRegistry, "hit");
+        this.missTimer = lookupTimer(meterRegistry, "miss");
+    }
+
+    /**
+     * 查询已验证的令牌
+     *
+     * @param token
+     * @return 未命中或已过期时返回null
+     */
+    public Entry get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Entry entry = cache.getIfPresent(digest(token));
+        (entry == null ? missTimer : hitTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return entry;
+    }
+
+    /**
+     * 缓存已验证的令牌
+     *
+     * @param token
+     * @param entry
+     */
+    public void put(String token, Entry entry) {
+        if (!enabled || entry.expireAt() <= System.currentTimeMillis()) {
+            return;
+        }
+        cache.put(digest(token), entry);
+    }
+
+    /**
+     * 移除指定用户的全部缓存令牌，用户登出或被禁用时调用
+     *
+     * @param userId
+     */
+    public void invalidateUser(Long userId) {
+        invalidateUsers(Set.of(userId));
+    }
+
+    /**
+     * 批量移除多个用户的缓存令牌，只遍历一次缓存
+     *
+     * @param userIds
+     */
+    public void invalidateUsers(Collection<Long> userIds) {
+        Set<Long> ids = userIds instanceof Set<Long> set ? set : Set.copyOf(userIds);
+        cache.asMap().values().removeIf(entry -> ids.contains(entry.loginInfo().getId()));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("ailab.cache.lookup")
+                .description("本地缓存查询耗时（包括计算令牌摘要）")
+                .tags("cache", "token", "result", result)
+                .register(meterRegistry);
+    }
+
+    private static String digest(String token) {
+        MessageDigest digest = DIGESTS.borrow();
+        byte[] hash;
+        try {
+            hash = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+        } finally {
+            DIGESTS.release(digest);
+        }
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    /**
+     * 缓存项
+     *
+     * @param loginInfo 令牌中的登录信息
+     * @param issuedAt  签发时间，毫秒时间戳
+     * @param expireAt  过期时间，毫秒时间戳
+     */
+    public record Entry(AuthLoginInfo loginInfo, long issuedAt, long expireAt) {
+    }
+
+    /**
+     * 缓存项的存活时间不超过令牌的剩余有效期
+     */
+    private static class TokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            long remaining = entry.expireAt() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
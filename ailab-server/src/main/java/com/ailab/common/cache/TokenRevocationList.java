@@ -0,0 +1,309 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.JwtProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 本地令牌吊销表，记录每个用户的吊销时间（用户id -> 该时间及之前签发的令牌全部失效）
+ * <p>
+ * 用户登出或被禁用时写入Redis哈希并通过发布订阅通知所有实例，各实例在本地维护只读快照，
+ * 拦截器校验令牌时只读取本地快照，不产生网络请求。吊销时间超过访问令牌有效期的记录会被清理，
+ * 因为在此之前签发的访问令牌都已过期。
+ * <p>
+ * 比较使用令牌中毫秒精度的签发时间，吊销后立即重新登录或在其他设备上刷新得到的令牌不受影响。
+ */
+@Slf4j
+@Component
+public class TokenRevocationList implements MessageListener {
+
+    public static final String CHANNEL = "user:revoked:channel"; // 吊销通知频道
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long retention; // 吊销记录保留时长，等于访问令牌有效期，单位毫秒
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile LongLongMap snapshot = LongLongMap.EMPTY;
+
+    public TokenRevocationList(StringRedisTemplate stringRedisTemplate, RedisConnectionFactory redisConnectionFactory,
+                               JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.retention = jwtProperties.getAccessTokenExpiration();
+        Gauge.builder("ailab.revocation.size", this, list -> list.snapshot.size())
+                .description("本地令牌吊销表中的用户数")
+                .register(meterRegistry);
+
+        // 订阅在同步任务中建立，Redis不可用时不影响应用启动，恢复后自动重新订阅
+        this.listenerContainer = new RedisMessageListenerContainer();
+        this.listenerContainer.setConnectionFactory(redisConnectionFactory);
+        this.listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+        this.listenerContainer.afterPropertiesSet();
+    }
+
+    /**
+     * 判断令牌是否已吊销
+     *
+     * @param userId   用户id
+     * @param issuedAt 令牌签发时间，毫秒时间戳
+     * @return
+     */
+    public boolean isRevoked(long userId, long issuedAt) {
+        return issuedAt <= snapshot.get(userId);
+    }
+
+    /**
+     * 吊销用户当前之前签发的全部令牌
+     *
+     * @param userId
+     */
+    public void revoke(Long userId) {
+        revokeAll(List.of(userId));
+    }
+
+    /**
+     * 批量吊销用户当前之前签发的全部令牌，先写入本地，再通过一次管道写入Redis并通知其他实例
+     *
+     * @param userIds
+     */
+    public void revokeAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        long revokedBefore = System.currentTimeMillis();
+        List<long[]> revocations = new ArrayList<>(userIds.size());
+        Map<String, String> fields = new HashMap<>();
+        StringJoiner message = new StringJoiner(",");
+        for (Long userId : userIds) {
+            revocations.add(new long[]{userId, revokedBefore});
+            fields.put(userId.toString(), Long.toString(revokedBefore));
+            message.add(userId + ":" + revokedBefore);
+        }
+        merge(revocations);
+
+        String key = RedisEnum.USER_REVOKED.getKey();
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            stringConnection.hMSet(key, fields);
+            stringConnection.pExpire(key, retention);
+            stringConnection.publish(CHANNEL, message.toString());
+            return null;
+        });
+    }
+
+    /**
+     * 接收其他实例的吊销通知，消息格式为 用户id:吊销时间，多条之间用逗号分隔
+     *
+     * @param message
+     * @param pattern
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            List<long[]> revocations = new ArrayList<>();
+            for (String item : body.split(",")) {
+                int separator = item.indexOf(':');
+                revocations.add(new long[]{Long.parseLong(item.substring(0, separator)),
+                        Long.parseLong(item.substring(separator + 1))});
+            }
+            merge(revocations);
+        } catch (RuntimeException e) {
+            log.warn("忽略无法解析的吊销通知：{}", body);
+        }
+    }
+
+    /**
+     * 启动时及定期从Redis全量同步，补齐订阅断开期间丢失的通知，同时清理Redis中已过期的记录
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ailab.revocation.resync-interval:60000}")
+    public void resync() {
+        subscribe();
+
+        String key = RedisEnum.USER_REVOKED.getKey();
+        Map<Object, Object> entries;
+        try {
+            entries = stringRedisTemplate.opsForHash().entries(key);
+        } catch (RuntimeException e) {
+            log.warn("同步令牌吊销表失败：{}", e.getMessage());
+            return;
+        }
+
+        long expiredBefore = System.currentTimeMillis() - retention;
+        List<long[]> revocations = new ArrayList<>(entries.size());
+        List<Object> expiredFields = new ArrayList<>();
+        entries.forEach((field, value) -> {
+            try {
+                long revokedBefore = Long.parseLong(value.toString());
+                if (revokedBefore < expiredBefore) {
+                    expiredFields.add(field);
+                } else {
+                    revocations.add(new long[]{Long.parseLong(field.toString()), revokedBefore});
+                }
+            } catch (NumberFormatException e) {
+                expiredFields.add(field);
+            }
+        });
+        merge(revocations);
+
+        if (!expiredFields.isEmpty()) {
+            try {
+                stringRedisTemplate.opsForHash().delete(key, expiredFields.toArray());
+            } catch (RuntimeException e) {
+                log.warn("清理过期吊销记录失败：{}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 确保已订阅吊销通知，订阅失败时重置监听容器，等待下次同步时重试
+     */
+    private void subscribe() {
+        if (listenerContainer.isListening()) {
+            return;
+        }
+        try {
+            listenerContainer.stop();
+            listenerContainer.start();
+        } catch (RuntimeException e) {
+            log.warn("订阅令牌吊销通知失败：{}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws Exception {
+        listenerContainer.destroy();
+    }
+
+    /**
+     * 合并吊销记录，同一用户保留较晚的吊销时间，并丢弃已超过保留时长的记录
+     * 写入频率远低于读取，每次写入重建快照，读取时无需加锁
+     *
+     * @param revocations 每项为 {用户id, 吊销时间}
+     */
+    private synchronized void merge(List<long[]> revocations) {
+        long expiredBefore = System.currentTimeMillis() - retention;
+        LongLongMap current = snapshot;
+        LongLongMap.Builder builder = new LongLongMap.Builder(current.size() + revocations.size());
+        current.forEach((userId, revokedBefore) -> {
+            if (revokedBefore >= expiredBefore) {
+                builder.putMax(userId, revokedBefore);
+            }
+        });
+        for (long[] revocation : revocations) {
+            if (revocation[1] >= expiredBefore) {
+                builder.putMax(revocation[0], revocation[1]);
+            }
+        }
+        snapshot = builder.build();
+    }
+
+    /**
+     * 只读的long -> long开放寻址哈希表，键为0的槽位表示空位（用户id从1开始）
+     */
+    static final class LongLongMap {
+
+        static final LongLongMap EMPTY = new Builder(0).build();
+
+        private final long[] keys;
+        private final long[] values;
+        private final int mask;
+        private final int size;
+
+        private LongLongMap(long[] keys, long[] values, int size) {
+            this.keys = keys;
+            this.values = values;
+            this.mask = keys.length - 1;
+            this.size = size;
+        }
+
+        /**
+         * @param key
+         * @return 不存在时返回0
+         */
+        long get(long key) {
+            int index = hash(key) & mask;
+            long current;
+            while ((current = keys[index]) != 0) {
+                if (current == key) {
+                    return values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        void forEach(EntryConsumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+
+        @FunctionalInterface
+        interface EntryConsumer {
+            void accept(long key, long value);
+        }
+
+        static final class Builder {
+            private final long[] keys;
+            private final long[] values;
+            private final int mask;
+            private int size;
+
+            Builder(int expectedSize) {
+                // 负载因子不超过0.5
+                int capacity = Integer.highestOneBit(Math.max(expectedSize, 4) * 2 - 1) << 1;
+                this.keys = new long[capacity];
+                this.values = new long[capacity];
+                this.mask = capacity - 1;
+            }
+
+            void putMax(long key, long value) {
+                if (key == 0) {
+                    return;
+                }
+                int index = hash(key) & mask;
+                while (keys[index] != 0) {
+                    if (keys[index] == key) {
+                        values[index] = Math.max(values[index], value);
+                        return;
+                    }
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = value;
+                size++;
+            }
+
+            LongLongMap build() {
+                return new LongLongMap(keys, values, size);
+            }
+        }
+    }
+}
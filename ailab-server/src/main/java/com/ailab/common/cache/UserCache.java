@@ -0,0 +1,200 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.component.AesCipher;
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.UserCacheProperties;
+import com.ailab.pojo.domain.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 用户详细信息二级缓存
+ * 一级为本地缓存（保存解密后的数据），二级为Redis（保存数据库中的原始数据，邮箱仍为密文），均未命中时从数据库加载
+ * <p>
+ * 失效时立即删除一次，并在延迟后再删除一次：更新前已读取数据库的并发加载可能在第一次删除之后才写入缓存，
+ * 第二次删除清除这类旧数据，避免其保留到Redis缓存过期。
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private final boolean enabled;
+    private final long deleteDelay;
+    private final Cache<Long, User> localCache;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+    private final AesCipher aesCipher;
+    private final TaskScheduler taskScheduler;
+    private final Timer redisLoadTimer;
+    private final Timer dbLoadTimer;
+
+    public UserCache(UserCacheProperties userCacheProperties, StringRedisTemplate stringRedisTemplate,
+                     ObjectMapper objectMapper, AesCipher aesCipher, TaskScheduler taskScheduler,
+                     MeterRegistry meterRegistry) {
+        this.enabled = userCacheProperties.isEnabled();
+        this.deleteDelay = userCacheProperties.getDeleteDelay();
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(userCacheProperties.getMaximumSize())
+                .expireAfterWrite(userCacheProperties.getLocalTtl(), TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.aesCipher = aesCipher;
+        this.taskScheduler = taskScheduler;
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "user");
+        this.redisLoadTimer = Timer.builder("ailab.cache.user.load")
+                .description("用户信息缓存未命中时的加载耗时")
+                .tag("source", "redis")
+                .register(meterRegistry);
+        this.dbLoadTimer = Timer.builder("ailab.cache.user.load")
+                .description("用户信息缓存未命中时的加载耗时")
+                .tag("source", "db")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 获取用户信息
+     *
+     * @param id     用户id
+     * @param loader 从数据库加载用户信息，邮箱为密文
+     * @return 用户不存在时返回null
+     */
+    public User get(Long id, Function<Long, User> loader) {
+        if (!enabled) {
+            return decrypt(loader.apply(id));
+        }
+        User user = localCache.get(id, key -> load(key, loader));
+        return user == null ? null : copyOf(user);
+    }
+
+    /**
+     * 使用户信息缓存失效，用户信息变更时调用
+     *
+     * @param id
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        delete(id);
+        scheduleDelete(() -> delete(id));
+    }
+
+    /**
+     * 批量使用户信息缓存失效，Redis中的缓存通过一次管道删除
+     *
+     * @param ids
+     */
+    public void invalidateAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        deleteAll(copy);
+        scheduleDelete(() -> deleteAll(copy));
+    }
+
+    private void delete(Long id) {
+        localCache.invalidate(id);
+        try {
+            stringRedisTemplate.delete(RedisEnum.USER_INFO.getKey() + id);
+        } catch (Exception e) {
+            log.warn("删除用户信息缓存失败，用户ID：{}，{}", id, e.getMessage());
+        }
+    }
+
+    private void deleteAll(Collection<Long> ids) {
+        localCache.invalidateAll(ids);
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (Long id : ids) {
+                    stringConnection.del(RedisEnum.USER_INFO.getKey() + id);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("批量删除用户信息缓存失败，数量：{}，{}", ids.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * 延迟执行第二次删除，延迟时间应大于一次数据库加载并写入缓存的耗时
+     *
+     * @param task
+     */
+    private void scheduleDelete(Runnable task) {
+        if (!enabled || deleteDelay <= 0) {
+            return;
+        }
+        taskScheduler.schedule(task, Instant.now().plusMillis(deleteDelay));
+    }
+
+    private User load(Long id, Function<Long, User> loader) {
+        String redisKey = RedisEnum.USER_INFO.getKey() + id;
+
+        // 查询Redis
+        User user = redisLoadTimer.record(() -> readRedis(redisKey));
+        if (user != null) {
+            return decrypt(user);
+        }
+
+        // 查询数据库，并写入Redis
+        user = dbLoadTimer.record(() -> loader.apply(id));
+        if (user == null) {
+            return null;
+        }
+        writeRedis(redisKey, user);
+        return decrypt(user);
+    }
+
+    private User readRedis(String redisKey) {
+        try {
+            String json = stringRedisTemplate.opsForValue().get(redisKey);
+            return json == null ? null : objectMapper.readValue(json, User.class);
+        } catch (Exception e) {
+            log.warn("读取用户信息缓存失败，{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRedis(String redisKey, User user) {
+        try {
+            stringRedisTemplate.opsForValue().set(redisKey, objectMapper.writeValueAsString(user),
+                    RedisEnum.USER_INFO.getTtl(), RedisEnum.USER_INFO.getTimeUnit());
+        } catch (Exception e) {
+            log.warn("写入用户信息缓存失败，{}", e.getMessage());
+        }
+    }
+
+    private User decrypt(User user) {
+        if (user != null && user.getEmail() != null) {
+            user.setEmail(aesCipher.decrypt(user.getEmail()));
+        }
+        return user;
+    }
+
+    /**
+     * 复制一份返回给调用方，避免调用方修改缓存中的对象
+     */
+    private static User copyOf(User user) {
+        return user.toBuilder().build();
+    }
+}
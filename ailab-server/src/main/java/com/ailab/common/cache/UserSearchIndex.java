@@ -0,0 +1,443 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.enums.UserStatusEnum;
+import com.ailab.common.properties.UserSearchProperties;
+import com.ailab.mapper.UserMapper;
+import com.ailab.pojo.domain.User;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用户搜索内存索引，支持按账户名、姓名、学号进行前缀和子串匹配（不区分大小写）
+ * <p>
+ * 主索引为只读快照，按字段记录每个字符及每两个相邻字符出现在哪些用户中，查询时取查询词中用户最少的一项作为候选，
+ * 再逐个确认字段确实匹配查询词。用户在快照中以连续的槽位编号表示，倒排表为int数组，十万用户约占用几十MB内存。
+ * <p>
+ * 本实例的写入先记录在增量表中，查询时增量表中的用户覆盖快照中的同一用户，增量累计较多时在定时任务线程中合并为新快照，
+ * 不占用写入请求的线程。
+ * 启动时及定期从数据库全量重建，同步其他实例的写入；数据库不可用时保留原有快照，首次重建成功前由调用方回退到数据库查询。
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private static final int FIELDS = 3; // 参与搜索的字段数：账户名、学号、姓名
+    private static final int EXACT = 0; // 完全匹配
+    private static final int PREFIX = 1; // 前缀匹配
+    private static final int CONTAINS = 2; // 子串匹配
+
+    private final UserMapper userMapper;
+    private final UserSearchProperties userSearchProperties;
+    private final TaskScheduler taskScheduler;
+
+    private volatile Snapshot snapshot; // 首次重建成功前为null
+    private final Map<Long, Delta> deltas = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean compactScheduled = new AtomicBoolean(); // 是否已提交尚未开始的合并任务
+
+    public UserSearchIndex(UserMapper userMapper, UserSearchProperties userSearchProperties,
+                           TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.userMapper = userMapper;
+        this.userSearchProperties = userSearchProperties;
+        this.taskScheduler = taskScheduler;
+        Gauge.builder("ailab.user.search.size", this, index -> index.size())
+                .description("用户搜索索引中的用户数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 索引是否可用
+     *
+     * @return
+     */
+    public boolean isReady() {
+        return userSearchProperties.isEnabled() && snapshot != null;
+    }
+
+    /**
+     * 搜索用户，完全匹配优先于前缀匹配，前缀匹配优先于子串匹配，同等匹配时账户名优先于学号和姓名，最后按用户id排序
+     *
+     * @param keyword 查询词，不能为空
+     * @param limit   最多返回的用户数
+     * @return 只包含id、账户名、姓名、学号、身份和状态
+     */
+    public List<User> search(String keyword, int limit) {
+        Snapshot current = snapshot;
+        String query = keyword.trim().toLowerCase(Locale.ROOT);
+        if (current == null || query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        List<Hit> hits = current.search(query, limit, deltas.isEmpty() ? null : deltas.keySet());
+        if (!deltas.isEmpty()) {
+            // 增量表中的用户数量很少，逐个匹配后与快照的结果合并
+            hits = new ArrayList<>(hits);
+            for (Delta delta : deltas.values()) {
+                int rank = rank(delta.entry(), query);
+                if (rank < Integer.MAX_VALUE) {
+                    hits.add(new Hit(rank, delta.entry()));
+                }
+            }
+            Collections.sort(hits);
+        }
+
+        List<User> users = new ArrayList<>(Math.min(hits.size(), limit));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            users.add(hits.get(i).entry().toUser());
+        }
+        return users;
+    }
+
+    /**
+     * 用户写入数据库后更新索引，需传入完整的用户信息
+     *
+     * @param users
+     */
+    public void putAll(Collection<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        for (User user : users) {
+            deltas.put(user.getId(), new Delta(Entry.of(user), sequence.incrementAndGet()));
+        }
+        if (deltas.size() > userSearchProperties.getCompactThreshold()) {
+            scheduleCompact();
+        }
+    }
+
+    /**
+     * 提交合并任务，已有任务等待执行时不重复提交
+     */
+    private void scheduleCompact() {
+        if (!compactScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskScheduler.schedule(() -> {
+                // 先清除标记，合并期间的写入超过阈值时可以提交下一次合并
+                compactScheduled.set(false);
+                compact();
+            }, Instant.now());
+        } catch (RejectedExecutionException e) {
+            compactScheduled.set(false);
+            log.debug("提交用户搜索索引合并任务失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 启动时及定期从数据库全量重建索引，按id顺序分批读取
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${ailab.user-search.rebuild-interval:300000}")
+    public void rebuild() {
+        if (!userSearchProperties.isEnabled()) {
+            return;
+        }
+        long startedAt = sequence.get();
+        List<Entry> entries = new ArrayList<>();
+        try {
+            long lastId = 0;
+            int batchSize = userSearchProperties.getLoadBatchSize();
+            while (true) {
+                List<User> batch = userMapper.selectList(new LambdaQueryWrapper<>(User.class)
+                        .select(User::getId, User::getAccountName, User::getName, User::getSno, User::getRole,
+                                User::getStatus)
+                        .gt(User::getId, lastId)
+                        .orderByAsc(User::getId)
+                        .last("LIMIT " + batchSize));
+                batch.forEach(user -> entries.add(Entry.of(user)));
+                if (batch.size() < batchSize) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } catch (RuntimeException e) {
+            log.warn("重建用户搜索索引失败：{}", e.getMessage());
+            return;
+        }
+
+        synchronized (this) {
+            snapshot = Snapshot.build(entries);
+            // 重建开始前的写入已包含在读取结果中，之后的写入继续保留在增量表中
+            deltas.values().removeIf(delta -> delta.sequence() <= startedAt);
+        }
+        log.debug("用户搜索索引重建完成，用户数：{}", entries.size());
+    }
+
+    /**
+     * 将增量表合并到新快照，不访问数据库
+     */
+    private synchronized void compact() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            // 尚未从数据库加载，增量表无法单独构成完整索引，等待重建
+            return;
+        }
+        Map<Long, Delta> merged = new HashMap<>(deltas);
+        List<Entry> entries = new ArrayList<>(current.entries.length + merged.size());
+        for (Entry entry : current.entries) {
+            if (!merged.containsKey(entry.id())) {
+                entries.add(entry);
+            }
+        }
+        merged.values().forEach(delta -> entries.add(delta.entry()));
+        snapshot = Snapshot.build(entries);
+        // 合并期间又有写入的用户保留在增量表中
+        merged.forEach(deltas::remove);
+    }
+
+    private int size() {
+        Snapshot current = snapshot;
+        return (current == null ? 0 : current.entries.length) + deltas.size();
+    }
+
+    /**
+     * 计算用户的匹配排名，排名依次为：各字段完全匹配、各字段前缀匹配、各字段子串匹配，字段顺序为账户名、学号、姓名
+     *
+     * @param entry
+     * @param query 查询词的小写形式
+     * @return 不匹配时返回Integer.MAX_VALUE
+     */
+    private static int rank(Entry entry, String query) {
+        int best = Integer.MAX_VALUE;
+        for (int field = 0; field < FIELDS; field++) {
+            String key = entry.key(field);
+            if (key == null) {
+                continue;
+            }
+            if (key.startsWith(query)) {
+                best = Math.min(best, (key.length() == query.length() ? EXACT : PREFIX) * FIELDS + field);
+            } else if (key.contains(query)) {
+                best = Math.min(best, CONTAINS * FIELDS + field);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 单个字符或相邻两个字符的编码，两者取值范围不重叠
+     *
+     * @param value
+     * @param index  起始位置
+     * @param length 1或2
+     * @return
+     */
+    private static long gram(String value, int index, int length) {
+        return length == 1 ? value.charAt(index)
+                : 1L << 32 | (long) value.charAt(index) << 16 | value.charAt(index + 1);
+    }
+
+    /**
+     * 索引中的用户，同时保存字段的小写形式用于匹配
+     */
+    private record Entry(long id, String accountName, String name, String sno, UserRoleEnum role,
+                         UserStatusEnum status, String accountNameKey, String nameKey, String snoKey) {
+
+        static Entry of(User user) {
+            return new Entry(user.getId(), user.getAccountName(), user.getName(), user.getSno(), user.getRole(),
+                    user.getStatus(), key(user.getAccountName()), key(user.getName()), key(user.getSno()));
+        }
+
+        private static String key(String value) {
+            return value == null ? null : value.toLowerCase(Locale.ROOT);
+        }
+
+        String key(int field) {
+            return switch (field) {
+                case 0 -> accountNameKey;
+                case 1 -> snoKey;
+                default -> nameKey;
+            };
+        }
+
+        User toUser() {
+            return User.builder()
+                    .id(id)
+                    .accountName(accountName)
+                    .name(name)
+                    .sno(sno)
+                    .role(role)
+                    .status(status)
+                    .build();
+        }
+    }
+
+    private record Delta(Entry entry, long sequence) {
+    }
+
+    private record Hit(int rank, Entry entry) implements Comparable<Hit> {
+        @Override
+        public int compareTo(Hit other) {
+            return rank != other.rank ? Integer.compare(rank, other.rank) : Long.compare(entry.id(), other.entry.id());
+        }
+    }
+
+    /**
+     * 只读快照，用户按id升序存放在数组中，以数组下标（槽位）表示。每个字段维护两张倒排表，槽位均按升序排列：
+     * 前缀表记录字段的首字符和前两个字符，用于完全匹配和前缀匹配；子串表记录字段中出现的每个字符和每两个相邻字符，用于子串匹配。
+     * 查询时按排名从高到低依次扫描各表，扫描同一张表时用户id递增，凑满所需数量即可停止，不需要遍历全部匹配的用户。
+     */
+    private static final class Snapshot {
+
+        private static final int[] EMPTY = new int[0];
+
+        private final Entry[] entries;
+        private final short[][] lengths; // 各字段的长度，完全匹配时先比较长度，避免逐个读取用户
+        private final Map<Long, int[]>[] prefixes;
+        private final Map<Long, int[]>[] grams;
+
+        private Snapshot(Entry[] entries, short[][] lengths, Map<Long, int[]>[] prefixes, Map<Long, int[]>[] grams) {
+            this.entries = entries;
+            this.lengths = lengths;
+            this.prefixes = prefixes;
+            this.grams = grams;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Snapshot build(List<Entry> entries) {
+            Entry[] sorted = entries.toArray(new Entry[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(Entry::id));
+            short[][] lengths = new short[FIELDS][sorted.length];
+            Map<Long, IntList>[] prefixLists = new Map[FIELDS];
+            Map<Long, IntList>[] gramLists = new Map[FIELDS];
+            for (int field = 0; field < FIELDS; field++) {
+                prefixLists[field] = new HashMap<>();
+                gramLists[field] = new HashMap<>();
+            }
+            for (int slot = 0; slot < sorted.length; slot++) {
+                for (int field = 0; field < FIELDS; field++) {
+                    String key = sorted[slot].key(field);
+                    if (key == null || key.isEmpty()) {
+                        continue;
+                    }
+                    lengths[field][slot] = (short) Math.min(key.length(), Short.MAX_VALUE);
+                    add(prefixLists[field], gram(key, 0, 1), slot);
+                    if (key.length() > 1) {
+                        add(prefixLists[field], gram(key, 0, 2), slot);
+                    }
+                    for (int i = 0; i < key.length(); i++) {
+                        add(gramLists[field], gram(key, i, 1), slot);
+                        if (i + 1 < key.length()) {
+                            add(gramLists[field], gram(key, i, 2), slot);
+                        }
+                    }
+                }
+            }
+            Map<Long, int[]>[] prefixes = new Map[FIELDS];
+            Map<Long, int[]>[] grams = new Map[FIELDS];
+            for (int field = 0; field < FIELDS; field++) {
+                prefixes[field] = toArrays(prefixLists[field]);
+                grams[field] = toArrays(gramLists[field]);
+            }
+            return new Snapshot(sorted, lengths, prefixes, grams);
+        }
+
+        /**
+         * 同一字段中重复出现的字符只记录一次，槽位递增写入，只需与最后一项比较
+         */
+        private static void add(Map<Long, IntList> lists, long gram, int slot) {
+            IntList list = lists.computeIfAbsent(gram, key -> new IntList());
+            if (list.size == 0 || list.values[list.size - 1] != slot) {
+                list.add(slot);
+            }
+        }
+
+        private static Map<Long, int[]> toArrays(Map<Long, IntList> lists) {
+            Map<Long, int[]> arrays = new HashMap<>(lists.size() * 4 / 3 + 1);
+            lists.forEach((gram, list) -> arrays.put(gram, Arrays.copyOf(list.values, list.size)));
+            return arrays;
+        }
+
+        /**
+         * @param query      查询词的小写形式
+         * @param limit      最多返回的用户数
+         * @param overridden 已被增量表覆盖的用户id，可以为null
+         * @return 按排名和id排序
+         */
+        List<Hit> search(String query, int limit, Set<Long> overridden) {
+            List<Hit> hits = new ArrayList<>(limit);
+            Set<Integer> taken = new HashSet<>();
+            int gramLength = Math.min(query.length(), 2);
+            short queryLength = (short) Math.min(query.length(), Short.MAX_VALUE);
+            for (int type = EXACT; type <= CONTAINS; type++) {
+                for (int field = 0; field < FIELDS; field++) {
+                    int[] candidates = smallestPosting(grams[field], query);
+                    if (type != CONTAINS) {
+                        int[] prefix = prefixes[field].getOrDefault(gram(query, 0, gramLength), EMPTY);
+                        candidates = prefix.length < candidates.length ? prefix : candidates;
+                    }
+                    short[] fieldLengths = lengths[field];
+                    for (int slot : candidates) {
+                        if (type == EXACT ? fieldLengths[slot] != queryLength : fieldLengths[slot] < queryLength) {
+                            continue;
+                        }
+                        Entry entry = entries[slot];
+                        if (!matches(entry.key(field), query, type) || taken.contains(slot)
+                                || (overridden != null && overridden.contains(entry.id()))) {
+                            continue;
+                        }
+                        taken.add(slot);
+                        hits.add(new Hit(type * FIELDS + field, entry));
+                        if (hits.size() == limit) {
+                            return hits;
+                        }
+                    }
+                }
+            }
+            return hits;
+        }
+
+        private static boolean matches(String key, String query, int type) {
+            return switch (type) {
+                case EXACT -> key.equals(query);
+                case PREFIX -> key.startsWith(query);
+                default -> key.contains(query);
+            };
+        }
+
+        /**
+         * 查询词中包含用户最少的字符或相邻字符对应的倒排表，某一项不存在时没有任何用户能够匹配
+         */
+        private static int[] smallestPosting(Map<Long, int[]> grams, String query) {
+            int length = Math.min(query.length(), 2);
+            int[] smallest = null;
+            for (int i = 0; i + length <= query.length(); i++) {
+                int[] posting = grams.get(gram(query, i, length));
+                if (posting == null) {
+                    return EMPTY;
+                }
+                if (smallest == null || posting.length < smallest.length) {
+                    smallest = posting;
+                }
+            }
+            return smallest;
+        }
+    }
+
+    /**
+     * 构建倒排表时使用的int动态数组
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.ailab.common.component;
+
+import com.ailab.common.util.InstancePool;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import javax.crypto.Cipher;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * AES加解密器
+ * 密钥只在创建时解码一次，Cipher从复用池中取用（虚拟线程模式下同样有效），IV使用非阻塞的SecureRandom生成
+ */
+public class AesCipher {
+
+    private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int IV_LENGTH = 16;
+
+    // 默认实现不会因熵不足而阻塞，线程安全
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    // 复用的Cipher实例，每次使用前都会重新初始化
+    private static final InstancePool<Cipher> CIPHERS = new InstancePool<>(() -> {
+        try {
+            return Cipher.getInstance(TRANSFORMATION);
+        } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+            throw new IllegalStateException("aes加密器初始化失败", e);
+        }
+    });
+
+    // 批量处理时，数量超过该值则在多个CPU核心上并行处理
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 512;
+
+    private final SecretKeySpec secretKey;
+    private final int parallelThreshold;
+    private final Timer encryptTimer;
+    private final Timer decryptTimer;
+    private final Timer batchEncryptTimer;
+    private final Timer batchDecryptTimer;
+
+    public AesCipher(String key) {
+        this(key, DEFAULT_PARALLEL_THRESHOLD, Metrics.globalRegistry);
+    }
+
+    public AesCipher(String key, int parallelThreshold, MeterRegistry meterRegistry) {
+        this.secretKey = new SecretKeySpec(Base64.getDecoder().decode(key), "AES");
+        this.parallelThreshold = parallelThreshold;
+        this.encryptTimer = timer(meterRegistry, "encrypt", "single");
+        this.decryptTimer = timer(meterRegistry, "decrypt", "single");
+        this.batchEncryptTimer = timer(meterRegistry, "encrypt", "batch");
+        this.batchDecryptTimer = timer(meterRegistry, "decrypt", "batch");
+    }
+
+    /**
+     * AES加密
+     *
+     * @param data
+     * @return IV与密文拼接后的Base64编码
+     */
+    public String encrypt(String data) {
+        long start = System.nanoTime();
+        Cipher cipher = CIPHERS.borrow();
+        String result;
+        try {
+            result = encrypt(cipher, data);
+        } finally {
+            CIPHERS.release(cipher);
+        }
+        encryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * AES解密
+     *
+     * @param encryptedData IV与密文拼接后的Base64编码
+     * @return
+     */
+    public String decrypt(String encryptedData) {
+        long start = System.nanoTime();
+        Cipher cipher = CIPHERS.borrow();
+        String result;
+        try {
+            result = decrypt(cipher, encryptedData);
+        } finally {
+            CIPHERS.release(cipher);
+        }
+        decryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * 批量加密对象中的字段，为null的字段跳过
+     *
+     * @param items  待处理的对象
+     * @param getter 获取明文字段
+     * @param setter 写回密文字段
+     * @param <T>
+     */
+    public <T> void encryptAll(List<T> items, Function<T, String> getter, BiConsumer<T, String> setter) {
+        processAll(items, getter, setter, true);
+    }
+
+    /**
+     * 批量解密对象中的字段，为null的字段跳过
+     *
+     * @param items  待处理的对象
+     * @param getter 获取密文字段
+     * @param setter 写回明文字段
+     * @param <T>
+     */
+    public <T> void decryptAll(List<T> items, Function<T, String> getter, BiConsumer<T, String> setter) {
+        processAll(items, getter, setter, false);
+    }
+
+    /**
+     * 批量处理：数量较少时在当前线程中复用同一个Cipher依次处理，数量较多时按CPU核心并行处理，每项从复用池中取用Cipher
+     */
+    private <T> void processAll(List<T> items, Function<T, String> getter, BiConsumer<T, String> setter,
+                                boolean encrypt) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (items.size() >= parallelThreshold) {
+            items.parallelStream().forEach(item -> {
+                Cipher cipher = CIPHERS.borrow();
+                try {
+                    process(cipher, item, getter, setter, encrypt);
+                } finally {
+                    CIPHERS.release(cipher);
+                }
+            });
+        } else {
+            Cipher cipher = CIPHERS.borrow();
+            try {
+                for (T item : items) {
+                    process(cipher, item, getter, setter, encrypt);
+                }
+            } finally {
+                CIPHERS.release(cipher);
+            }
+        }
+        (encrypt ? batchEncryptTimer : batchDecryptTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation, String mode) {
+        return Timer.builder("ailab.crypto.aes")
+                .description("AES加解密耗时，batch为整批处理耗时")
+                .tags("operation", operation, "mode", mode)
+                .register(meterRegistry);
+    }
+
+    private <T> void process(Cipher cipher, T item, Function<T, String> getter, BiConsumer<T, String> setter,
+                             boolean encrypt) {
+        String value = getter.apply(item);
+        if (value != null) {
+            setter.accept(item, encrypt ? encrypt(cipher, value) : decrypt(cipher, value));
+        }
+    }
+
+    private String encrypt(Cipher cipher, String data) {
+        try {
+            // 生成随机IV
+            byte[] iv = new byte[IV_LENGTH];
+            SECURE_RANDOM.nextBytes(iv);
+
+            cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+
+            // 密文直接写在IV之后，避免额外拷贝
+            byte[] plainBytes = data.getBytes(StandardCharsets.UTF_8);
+            byte[] encryptedIVAndText = new byte[IV_LENGTH + cipher.getOutputSize(plainBytes.length)];
+            System.arraycopy(iv, 0, encryptedIVAndText, 0, IV_LENGTH);
+            cipher.doFinal(plainBytes, 0, plainBytes.length, encryptedIVAndText, IV_LENGTH);
+
+            return Base64.getEncoder().encodeToString(encryptedIVAndText);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("aes加密失败", e);
+        }
+    }
+
+    private String decrypt(Cipher cipher, String encryptedData) {
+        try {
+            byte[] encryptedIVAndText = Base64.getDecoder().decode(encryptedData);
+
+            cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(encryptedIVAndText, 0, IV_LENGTH));
+
+            byte[] decryptedBytes = cipher.doFinal(encryptedIVAndText, IV_LENGTH,
+                    encryptedIVAndText.length - IV_LENGTH);
+
+            return new String(decryptedBytes, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("aes解密失败", e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ailab.common.component;
+
+import com.ailab.common.util.InstancePool;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * 盲索引计算器
+ * 对明文计算带密钥的HMAC-SHA256，结果可以作为数据库索引列进行等值查询，而不需要解密任何一行；
+ * 不知道密钥时无法通过穷举常见邮箱还原明文。计算前去除首尾空白并转为小写，查询不区分大小写。
+ * 密钥与AES密钥相互独立，更换密钥后需要重新回填索引列。
+ */
+public class BlindIndexer {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec secretKey;
+
+    // 复用的Mac实例，计算完成后自动重置
+    private final InstancePool<Mac> macs;
+
+    /**
+     * @param key Base64编码的密钥，至少32字节
+     */
+    public BlindIndexer(String key) {
+        byte[] keyBytes = Base64.getDecoder().decode(key);
+        if (keyBytes.length < 32) {
+            throw new IllegalArgumentException("盲索引密钥长度不能少于32字节");
+        }
+        this.secretKey = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = new InstancePool<>(this::newMac);
+    }
+
+    /**
+     * 计算盲索引，固定为43个字符
+     *
+     * @param value 明文
+     * @return value为null时返回null
+     */
+    public String index(String value) {
+        if (value == null) {
+            return null;
+        }
+        Mac mac = macs.borrow();
+        byte[] hash;
+        try {
+            hash = mac.doFinal(value.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            macs.release(mac);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(secretKey);
+            return instance;
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("盲索引计算器初始化失败", e);
+        }
+    }
+}
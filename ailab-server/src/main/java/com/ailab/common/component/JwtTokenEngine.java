@@ -0,0 +1,132 @@
+package com.ailab.common.component;
+
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.exception.BaseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JWT签发与校验引擎
+ * 签名密钥、解析器以及对象转换器只在创建时构建一次，之后各线程共享复用（均为线程安全对象）
+ */
+public class JwtTokenEngine {
+
+    // Jackson对象映射器，线程安全，全局共享
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // 按类型缓存的对象读取器
+    private static final Map<Class<?>, ObjectReader> READERS = new ConcurrentHashMap<>();
+
+    // 预先构建的登录信息读取器
+    private static final ObjectReader LOGIN_INFO_READER = readerFor(AuthLoginInfo.class);
+
+    private final Key key;
+    private final JwtParser parser;
+
+    public JwtTokenEngine(String secretKey) {
+        this.key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
+    /**
+     * 生成token
+     *
+     * @param expireTime token过期时间
+     * @param data       设置的信息
+     * @return token
+     */
+    public String createToken(Long expireTime, Map<String, Object> data) {
+        // 当前时间
+        Date now = new Date();
+        // 过期时间
+        Date expiration = new Date(now.getTime() + expireTime);
+
+        return Jwts.builder()
+                .setClaims(data) // 设置载荷
+                .setIssuedAt(now)  // 设置签发时间
+                .claim(AuthConstant.JWT_CLAIMS_ISSUED_AT_MILLIS, now.getTime()) // 标准签发时间只精确到秒，另存毫秒精度的签发时间
+                .setExpiration(expiration)  // 设置过期时间
+                .signWith(key, SignatureAlgorithm.HS256)  // 设置签名
+                .compact();
+    }
+
+    /**
+     * 解析token
+     *
+     * @param token 加密的token
+     * @return 设置的信息
+     */
+    public Claims parseToken(String token) {
+        try {
+            return parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException |
+                 IllegalArgumentException e) {
+            throw new BaseException("token解析失败", e);
+        }
+    }
+
+    /**
+     * 从Claims中获取毫秒精度的签发时间，不含该声明的令牌使用精确到秒的标准签发时间
+     *
+     * @param claims
+     * @return 毫秒时间戳
+     */
+    public long getIssuedAtMillis(Claims claims) {
+        Object issuedAt = claims.get(AuthConstant.JWT_CLAIMS_ISSUED_AT_MILLIS);
+        if (issuedAt instanceof Number number) {
+            return number.longValue();
+        }
+        return claims.getIssuedAt().getTime();
+    }
+
+    /**
+     * 从Claims中获取登录信息
+     *
+     * @param claims
+     * @param key
+     * @return
+     */
+    public AuthLoginInfo getLoginInfo(Claims claims, String key) {
+        return convert(claims.get(key), LOGIN_INFO_READER);
+    }
+
+    /**
+     * 从Claims中获取对象
+     *
+     * @param claims
+     * @param key
+     * @param type
+     * @param <T>
+     * @return
+     */
+    public static <T> T getObjectFromClaims(Claims claims, String key, Class<T> type) {
+        return convert(claims.get(key), readerFor(type));
+    }
+
+    private static ObjectReader readerFor(Class<?> type) {
+        return READERS.computeIfAbsent(type, OBJECT_MAPPER::readerFor);
+    }
+
+    private static <T> T convert(Object value, ObjectReader reader) {
+        if (!(value instanceof Map)) {
+            return null;
+        }
+        try {
+            return reader.readValue((JsonNode) OBJECT_MAPPER.valueToTree(value));
+        } catch (Exception e) {
+            throw new BaseException("token信息转换失败", e);
+        }
+    }
+}
@@ -0,0 +1,507 @@
+package com.ailab.common.component;
+
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.exception.TooManyRequestsException;
+import com.ailab.common.properties.LoginRateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 登录限流器，在查询数据库和校验密码之前拒绝过于频繁的登录请求
+ * <p>
+ * 客户端地址、以及账户名与客户端地址的组合各自维护一个令牌桶，令牌按固定间隔恢复，
+ * 分别限制单个地址对大量账户的撞库和单个地址对同一账户的猜测。组合的令牌桶每次登录消耗一个令牌，
+ * 因服务端繁忙未校验密码时退还；
+ * 地址的令牌桶只在登录失败时消耗令牌，经过代理或NAT共享同一地址的大量用户正常登录时不会互相占用。
+ * 客户端地址取自请求的远端地址，部署在反向代理之后时需配置server.tomcat.remoteip.internal-proxies，
+ * 由代理传递的请求头还原真实地址。账户在所有地址上的连续失败次数累计在一起，
+ * 达到阈值后，发生失败的账户名与地址组合开始退避，退避时长随账户的累计失败次数翻倍，登录成功后清零。
+ * 退避和令牌桶都不会影响同一账户在其他地址上的登录，知道账户名的攻击者无法通过故意输错密码锁定该账户。
+ * <p>
+ * 限流状态保存在按键哈希分段加锁的表中，每段为按访问顺序淘汰的LinkedHashMap，不同键的请求很少竞争同一把锁，
+ * 内存占用受maximumSize限制；仍处于退避期的键不会被淘汰，这类键只能由经过地址限流的失败登录产生。
+ * 令牌桶只在本实例内生效；开启redisMirror后账户的失败次数和各组合的退避截止时间写入Redis，多个实例共享退避状态，
+ * Redis不可用时退化为单实例限流。
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final int STRIPES = 64; // 分段数量，必须为2的幂
+    private static final int EVICTION_SCAN = 16; // 淘汰时最多跳过的退避中的键数量
+
+    private final LoginRateLimitProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LongSupplier nanoClock;
+    private final BucketTable failureTable; // 账户名 -> 所有地址上的连续失败次数
+    private final BucketTable pairBuckets; // 客户端地址|账户名 -> 令牌桶及退避截止时间
+    private final BucketTable ipBuckets; // 客户端地址 -> 令牌桶
+    private final Counter accountRejectedCounter;
+    private final Counter ipRejectedCounter;
+    private final Counter backoffRejectedCounter;
+
+    @Autowired
+    public LoginRateLimiter(LoginRateLimitProperties properties, StringRedisTemplate stringRedisTemplate,
+                            MeterRegistry meterRegistry) {
+        this(properties, stringRedisTemplate, meterRegistry, System::nanoTime);
+    }
+
+    LoginRateLimiter(LoginRateLimitProperties properties, StringRedisTemplate stringRedisTemplate,
+                     MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.nanoClock = nanoClock;
+        this.failureTable = new BucketTable(properties.getMaximumSize(), nanoClock);
+        this.pairBuckets = new BucketTable(properties.getMaximumSize(), nanoClock);
+        this.ipBuckets = new BucketTable(properties.getMaximumSize(), nanoClock);
+
+        this.accountRejectedCounter = rejectedCounter(meterRegistry, "account");
+        this.ipRejectedCounter = rejectedCounter(meterRegistry, "ip");
+        this.backoffRejectedCounter = rejectedCounter(meterRegistry, "backoff");
+        registerSizeGauge(meterRegistry, failureTable, "account");
+        registerSizeGauge(meterRegistry, pairBuckets, "pair");
+        registerSizeGauge(meterRegistry, ipBuckets, "ip");
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ailab.login.rejected")
+                .description("被登录限流拒绝的请求数")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static void registerSizeGauge(MeterRegistry meterRegistry, BucketTable table, String type) {
+        Gauge.builder("ailab.login.rate-limit.size", table, BucketTable::size)
+                .description("登录限流表中的键数量")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 登录前调用，账户名与地址的组合处于退避期、地址的失败令牌已耗尽或组合的令牌桶耗尽时抛出TooManyRequestsException
+     *
+     * @param accountName 账户名
+     * @param clientIp    客户端地址
+     */
+    public void acquire(String accountName, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String ip = clientIp == null ? "" : clientIp;
+        String pair = pairKey(normalize(accountName), ip);
+        long now = nanoClock.getAsLong();
+
+        if (pairBuckets.backoffRemaining(pair, now) > 0 || isRemoteBackoff(pair, now)) {
+            backoffRejectedCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_RATE_LIMITED_MESSAGE);
+        }
+        if (!ipBuckets.hasToken(ip, properties.getIpCapacity(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getIpRefillInterval()), now)) {
+            ipRejectedCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_RATE_LIMITED_MESSAGE);
+        }
+        if (!pairBuckets.tryAcquire(pair, properties.getAccountCapacity(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getAccountRefillInterval()), now)) {
+            accountRejectedCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_RATE_LIMITED_MESSAGE);
+        }
+    }
+
+    /**
+     * 密码未经校验即被拒绝（校验线程池繁忙）时调用，退还acquire消耗的组合令牌，服务端繁忙不计入用户的尝试次数
+     *
+     * @param accountName 账户名
+     * @param clientIp    客户端地址
+     */
+    public void release(String accountName, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String pair = pairKey(normalize(accountName), clientIp == null ? "" : clientIp);
+        pairBuckets.refund(pair, properties.getAccountCapacity());
+    }
+
+    /**
+     * 记录一次登录失败（账户不存在或密码错误），消耗客户端地址的一个令牌，
+     * 账户累计失败次数达到阈值后，为发生失败的账户名与地址组合设置退避截止时间
+     *
+     * @param accountName 账户名
+     * @param clientIp    客户端地址
+     */
+    public void onFailure(String accountName, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String account = normalize(accountName);
+        String ip = clientIp == null ? "" : clientIp;
+        String pair = pairKey(account, ip);
+        long now = nanoClock.getAsLong();
+        ipBuckets.tryAcquire(ip, properties.getIpCapacity(),
+                TimeUnit.MILLISECONDS.toNanos(properties.getIpRefillInterval()), now);
+        long window = failureWindow();
+        int failures = failureTable.recordFailure(account, now, TimeUnit.MILLISECONDS.toNanos(window));
+        if (properties.isRedisMirror()) {
+            failures = Math.max(failures, incrementRemoteFailures(account, window));
+        }
+
+        long delay = backoffDelay(failures);
+        if (delay > 0) {
+            pairBuckets.blockUntil(pair, properties.getAccountCapacity(),
+                    now + TimeUnit.MILLISECONDS.toNanos(delay), now);
+            if (properties.isRedisMirror()) {
+                setRemoteBackoff(pair, delay);
+            }
+        }
+    }
+
+    /**
+     * 登录成功后清除账户的失败次数以及当前地址上的退避状态
+     *
+     * @param accountName 账户名
+     * @param clientIp    客户端地址
+     */
+    public void onSuccess(String accountName, String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String account = normalize(accountName);
+        String pair = pairKey(account, clientIp == null ? "" : clientIp);
+        failureTable.remove(account);
+        pairBuckets.clearBackoff(pair);
+        if (properties.isRedisMirror()) {
+            try {
+                stringRedisTemplate.delete(List.of(RedisEnum.LOGIN_FAILURE.getKey() + account,
+                        RedisEnum.LOGIN_BACKOFF.getKey() + pair));
+            } catch (RuntimeException e) {
+                log.warn("清除登录失败记录失败：{}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 计算退避时长，失败次数未达到阈值时为0
+     *
+     * @param failures 账户的连续失败次数
+     * @return 单位毫秒
+     */
+    long backoffDelay(int failures) {
+        int exceeded = failures - properties.getBackoffThreshold();
+        if (exceeded < 0) {
+            return 0;
+        }
+        long delay = properties.getBackoffBase() << Math.min(exceeded, 30);
+        return delay <= 0 ? properties.getBackoffMax() : Math.min(delay, properties.getBackoffMax());
+    }
+
+    /**
+     * 连续失败次数的保留时长，超过该时长没有再失败时重新计数，
+     * 取最长退避时长的两倍，避免退避结束后失败次数立即清零
+     *
+     * @return 单位毫秒
+     */
+    private long failureWindow() {
+        return properties.getBackoffMax() * 2;
+    }
+
+    /**
+     * 账户名不区分大小写，避免通过改变大小写绕过限流
+     */
+    private static String normalize(String accountName) {
+        return accountName == null ? "" : accountName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 账户名与客户端地址组合的键，地址在前，地址中不会出现分隔符，不同组合不会得到相同的键
+     */
+    private static String pairKey(String account, String ip) {
+        return ip + "|" + account;
+    }
+
+    /**
+     * 检查其他实例记录的退避截止时间，处于退避期时同步到本地，Redis不可用时放行
+     */
+    private boolean isRemoteBackoff(String pair, long now) {
+        if (!properties.isRedisMirror()) {
+            return false;
+        }
+        String value;
+        try {
+            value = stringRedisTemplate.opsForValue().get(RedisEnum.LOGIN_BACKOFF.getKey() + pair);
+        } catch (RuntimeException e) {
+            log.debug("读取登录退避状态失败：{}", e.getMessage());
+            return false;
+        }
+        if (value == null) {
+            return false;
+        }
+        try {
+            long remaining = Long.parseLong(value) - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return false;
+            }
+            pairBuckets.blockUntil(pair, properties.getAccountCapacity(),
+                    now + TimeUnit.MILLISECONDS.toNanos(remaining), now);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 在Redis中累加账户的失败次数，返回所有实例的累计次数，Redis不可用时返回0
+     */
+    private int incrementRemoteFailures(String account, long window) {
+        String key = RedisEnum.LOGIN_FAILURE.getKey() + account;
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                stringConnection.incr(key);
+                stringConnection.pExpire(key, window);
+                return null;
+            });
+            return results.get(0) instanceof Long failures ? (int) Math.min(failures, Integer.MAX_VALUE) : 0;
+        } catch (RuntimeException e) {
+            log.debug("同步登录失败次数失败：{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * 将组合的退避截止时间（毫秒时间戳）写入Redis，过期时间等于退避时长
+     */
+    private void setRemoteBackoff(String pair, long delay) {
+        try {
+            stringRedisTemplate.opsForValue().set(RedisEnum.LOGIN_BACKOFF.getKey() + pair,
+                    Long.toString(System.currentTimeMillis() + delay), delay, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            log.debug("同步登录退避状态失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 单个键的限流状态，只在所属分段的锁内访问
+     */
+    static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+        private int failures;
+        private long lastFailureAt;
+        private long blockedUntil;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAt = now;
+            this.blockedUntil = now;
+        }
+    }
+
+    /**
+     * 分段加锁的限流表，每段最多保留 maximumSize / STRIPES 个键，超出时淘汰最久未访问且不在退避期内的键
+     */
+    static final class BucketTable {
+
+        private final Stripe[] stripes = new Stripe[STRIPES];
+
+        BucketTable(int maximumSize, LongSupplier nanoClock) {
+            int stripeSize = Math.max(1, maximumSize / STRIPES);
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new Stripe(stripeSize, nanoClock);
+            }
+        }
+
+        /**
+         * 按经过的时间补充令牌后尝试消耗一个令牌
+         *
+         * @param key
+         * @param capacity       桶容量
+         * @param refillInterval 恢复一个令牌的间隔，单位纳秒
+         * @param now            当前时间，纳秒
+         * @return 是否获取成功
+         */
+        boolean tryAcquire(String key, int capacity, long refillInterval, long now) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+                long elapsed = now - bucket.refilledAt;
+                if (elapsed > 0) {
+                    bucket.tokens = refillInterval <= 0 ? capacity
+                            : Math.min(capacity, bucket.tokens + (double) elapsed / refillInterval);
+                    bucket.refilledAt = now;
+                }
+                if (bucket.tokens < 1) {
+                    return false;
+                }
+                bucket.tokens -= 1;
+                return true;
+            }
+        }
+
+        /**
+         * 退还一个令牌，不超过桶容量，键不存在时忽略
+         *
+         * @param key
+         * @param capacity 桶容量
+         */
+        void refund(String key, int capacity) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket != null) {
+                    bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+                }
+            }
+        }
+
+        /**
+         * 按经过的时间补充令牌后判断是否还有令牌，不消耗令牌，键不存在时视为令牌桶已满
+         *
+         * @param key
+         * @param capacity       桶容量
+         * @param refillInterval 恢复一个令牌的间隔，单位纳秒
+         * @param now            当前时间，纳秒
+         * @return 是否还有令牌
+         */
+        boolean hasToken(String key, int capacity, long refillInterval, long now) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket == null || refillInterval <= 0) {
+                    return true;
+                }
+                return bucket.tokens + (double) (now - bucket.refilledAt) / refillInterval >= 1;
+            }
+        }
+
+        /**
+         * @param key
+         * @param now 当前时间，纳秒
+         * @return 剩余退避时长，纳秒；未处于退避期时返回0
+         */
+        long backoffRemaining(String key, long now) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                return bucket == null ? 0 : Math.max(0, bucket.blockedUntil - now);
+            }
+        }
+
+        /**
+         * 累加连续失败次数，距上次失败超过window时重新计数
+         *
+         * @param key
+         * @param now    当前时间，纳秒
+         * @param window 失败次数保留时长，纳秒
+         * @return 累加后的失败次数
+         */
+        int recordFailure(String key, long now, long window) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(0, now));
+                if (bucket.failures > 0 && now - bucket.lastFailureAt > window) {
+                    bucket.failures = 0;
+                }
+                bucket.lastFailureAt = now;
+                return ++bucket.failures;
+            }
+        }
+
+        /**
+         * 延长退避截止时间，键不存在时新建
+         *
+         * @param key
+         * @param capacity     新建令牌桶的容量
+         * @param blockedUntil 退避截止时间，纳秒
+         * @param now          当前时间，纳秒
+         */
+        void blockUntil(String key, int capacity, long blockedUntil, long now) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+                if (blockedUntil - bucket.blockedUntil > 0) {
+                    bucket.blockedUntil = blockedUntil;
+                }
+            }
+        }
+
+        void clearBackoff(String key) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                Bucket bucket = stripe.get(key);
+                if (bucket != null) {
+                    bucket.blockedUntil = bucket.refilledAt;
+                }
+            }
+        }
+
+        void remove(String key) {
+            Stripe stripe = stripe(key);
+            synchronized (stripe) {
+                stripe.remove(key);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.size();
+                }
+            }
+            return size;
+        }
+
+        private Stripe stripe(String key) {
+            int h = key.hashCode();
+            return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        }
+    }
+
+    static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private final int maximumSize;
+        private final LongSupplier nanoClock;
+
+        Stripe(int maximumSize, LongSupplier nanoClock) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+            this.nanoClock = nanoClock;
+        }
+
+        /**
+         * 超出容量时从最久未访问的键开始淘汰第一个不在退避期内的键，刚写入的键不参与淘汰；
+         * 扫描范围内的键都在退避期内时暂不淘汰，允许该段短暂超出容量
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            if (size() <= maximumSize) {
+                return false;
+            }
+            long now = nanoClock.getAsLong();
+            int scanLimit = Math.min(EVICTION_SCAN, size() - 1);
+            Iterator<Bucket> iterator = values().iterator();
+            for (int i = 0; i < scanLimit; i++) {
+                if (iterator.next().blockedUntil - now <= 0) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            return false;
+        }
+    }
+}
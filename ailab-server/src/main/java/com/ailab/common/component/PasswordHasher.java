@@ -0,0 +1,106 @@
+package com.ailab.common.component;
+
+import com.ailab.common.properties.BCryptProperties;
+import com.ailab.common.util.BCryptUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 密码加密器
+ * 使用配置的BCrypt加密强度，或在启动时根据本机性能在耗时预算内选择最高的强度
+ */
+@Slf4j
+@Component
+public class PasswordHasher {
+
+    // 校准时使用的样本数据
+    private static final String CALIBRATION_SAMPLE = "calibration-Sample1";
+
+    @Getter
+    private final int cost;
+
+    // 批量加密使用的线程池，与公共ForkJoinPool隔离
+    private final ForkJoinPool batchPool;
+
+    public PasswordHasher(BCryptProperties bCryptProperties) {
+        this.cost = bCryptProperties.isCalibrate() ? calibrate(bCryptProperties) : bCryptProperties.getCost();
+        this.batchPool = new ForkJoinPool(bCryptProperties.getBatchThreads());
+        log.info("BCrypt加密强度：{}", cost);
+    }
+
+    /**
+     * 对密码进行加密
+     *
+     * @param password
+     * @return
+     */
+    public String hash(String password) {
+        return BCryptUtils.hashData(password, cost);
+    }
+
+    /**
+     * 批量加密对象中的密码字段，在多个CPU核心上并行处理
+     *
+     * @param items  待处理的对象
+     * @param getter 获取原始密码
+     * @param setter 写回加密后的密码
+     * @param <T>
+     */
+    public <T> void hashAll(List<T> items, Function<T, String> getter, BiConsumer<T, String> setter) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        batchPool.submit(() -> items.parallelStream().forEach(item -> setter.accept(item, hash(getter.apply(item)))))
+                .join();
+    }
+
+    /**
+     * 判断已加密的密码是否需要按目标强度重新加密
+     *
+     * @param hashedPassword
+     * @return
+     */
+    public boolean needsRehash(String hashedPassword) {
+        return BCryptUtils.getCost(hashedPassword) != cost;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchPool.shutdownNow();
+    }
+
+    /**
+     * 从最低强度开始逐级测量加密耗时，选择耗时不超过预算的最高强度
+     *
+     * @param bCryptProperties
+     * @return
+     */
+    private static int calibrate(BCryptProperties bCryptProperties) {
+        // 预热，避免首次加密的类加载和JIT开销影响测量结果
+        BCryptUtils.hashData(CALIBRATION_SAMPLE, 4);
+
+        int selected = bCryptProperties.getMinCost();
+        for (int cost = bCryptProperties.getMinCost(); cost <= bCryptProperties.getMaxCost(); cost++) {
+            long start = System.nanoTime();
+            BCryptUtils.hashData(CALIBRATION_SAMPLE, cost);
+            long elapsed = (System.nanoTime() - start) / 1_000_000;
+            log.info("BCrypt强度{}耗时{}ms", cost, elapsed);
+            if (elapsed > bCryptProperties.getLatencyBudget()) {
+                break;
+            }
+            selected = cost;
+            // 每提高一级耗时约翻倍，预计超出预算时不再测量
+            if (elapsed * 2 > bCryptProperties.getLatencyBudget()) {
+                break;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,164 @@
+package com.ailab.common.component;
+
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.exception.TooManyRequestsException;
+import com.ailab.common.properties.LoginProperties;
+import com.ailab.common.util.BCryptUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录密码校验器
+ * BCrypt校验在独立的有界线程池中执行，避免占满Tomcat工作线程。
+ * 提交前根据排队数量和近期单次校验耗时估算等待时间，预计无法在等待时限内完成的请求直接拒绝，
+ * 不再排队等到超时；等待队列长度只作为上限。
+ */
+@Slf4j
+@Component
+public class PasswordVerifier {
+
+    private static final int LATENCY_SMOOTHING = 8; // 平均校验耗时的平滑系数，新样本占1/8权重
+
+    private final ThreadPoolExecutor executor;
+    private final int verifyThreads;
+    private final long verifyTimeout;
+    private final AtomicLong averageVerifyNanos = new AtomicLong(); // 近期单次校验的平均耗时，0表示尚无样本
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    public PasswordVerifier(LoginProperties loginProperties, MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                loginProperties.getVerifyThreads(), loginProperties.getVerifyThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(loginProperties.getVerifyQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-verify-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.verifyThreads = loginProperties.getVerifyThreads();
+        this.verifyTimeout = loginProperties.getVerifyTimeout();
+
+        this.matchTimer = Timer.builder("ailab.login.verify")
+                .description("BCrypt密码校验耗时")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.mismatchTimer = Timer.builder("ailab.login.verify")
+                .description("BCrypt密码校验耗时")
+                .tag("outcome", "mismatch")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("ailab.login.verify.rejected")
+                .description("因预计等待超时或队列已满，提交前被拒绝的登录请求数")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("ailab.login.verify.timeout")
+                .description("等待校验结果超时的登录请求数，已开始的校验仍会执行完毕")
+                .register(meterRegistry);
+        Gauge.builder("ailab.login.verify.queue", executor, e -> e.getQueue().size())
+                .description("等待校验的登录请求数")
+                .register(meterRegistry);
+        Gauge.builder("ailab.login.verify.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("正在校验的登录请求数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 校验密码是否匹配
+     *
+     * @param password       原始密码
+     * @param hashedPassword BCrypt加密后的密码
+     * @return
+     */
+    public boolean verify(String password, String hashedPassword) {
+        if (expectedWaitNanos() > TimeUnit.MILLISECONDS.toNanos(verifyTimeout)) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_BUSY_MESSAGE);
+        }
+
+        Future<Boolean> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                boolean matched = BCryptUtils.checkData(password, hashedPassword);
+                long elapsed = System.nanoTime() - start;
+                (matched ? matchTimer : mismatchTimer).record(elapsed, TimeUnit.NANOSECONDS);
+                recordLatency(elapsed);
+                return matched;
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_BUSY_MESSAGE);
+        }
+
+        try {
+            return future.get(verifyTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // 尚未开始的校验不再执行；已开始的BCrypt校验无法中断，会继续占用校验线程直到完成
+            future.cancel(false);
+            timeoutCounter.increment();
+            throw new TooManyRequestsException(AuthConstant.LOGIN_BUSY_MESSAGE);
+        } catch (InterruptedException e) {
+            // 校验线程池内部故障不属于业务异常，交由全局异常处理按服务器异常记录
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码校验失败", e.getCause());
+        }
+    }
+
+    /**
+     * 估算新提交的校验从提交到完成所需的时间：排在前面的任务按线程数分批执行，每批耗时取近期平均校验耗时。
+     * 有空闲线程时无需排队，始终放行，保证平均耗时能随新样本更新，不会因一次偏高的估算而持续拒绝
+     *
+     * @return 纳秒，有空闲线程或尚无耗时样本时返回0
+     */
+    long expectedWaitNanos() {
+        long pending = executor.getQueue().size() + executor.getActiveCount();
+        long average = averageVerifyNanos.get();
+        if (pending < verifyThreads || average == 0) {
+            return 0;
+        }
+        return (pending / verifyThreads + 1) * average;
+    }
+
+    void recordLatency(long elapsed) {
+        averageVerifyNanos.accumulateAndGet(elapsed,
+                (average, sample) -> average == 0 ? sample : average + (sample - average) / LATENCY_SMOOTHING);
+    }
+
+    /**
+     * 在校验线程池中异步重新加密密码，线程池繁忙时放弃本次重新加密，待下次登录再处理
+     *
+     * @param task 重新加密任务
+     */
+    public void rehashAsync(Runnable task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.warn("密码重新加密失败: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("校验线程池繁忙，跳过密码重新加密");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,297 @@
+package com.ailab.common.component;
+
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.RefreshTokenProperties;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 刷新令牌存储，封装Redis中 user:refresh:token:<用户id> 的读写
+ * <p>
+ * 轮换模式下每个用户的会话保存在哈希 user:refresh:session:<用户id> 中，字段为令牌族id，值为当前令牌的SHA-256摘要和过期时间，
+ * 以及上一个令牌的摘要和轮换时间，格式为 摘要:过期时间[:上一个摘要:轮换时间]，不保存令牌原文。
+ * 每次刷新都替换为新令牌，已被替换的令牌再次出现时视为令牌泄露，整个令牌族失效。
+ * <p>
+ * 基于Lettuce的非阻塞连接实现，所有操作提供返回CompletableFuture的异步版本，调用方可以在等待Redis响应的同时
+ * 继续处理其他工作；多个键的操作在同一连接上连续发送，不逐个等待响应；比较后删除、新增会话和轮换令牌使用Lua脚本
+ * 保证比较和写入的原子性，并发刷新时只有一个请求能够成功。
+ */
+@Component
+public class RefreshTokenStore {
+
+    // 值与预期一致时删除
+    private static final RedisScript<Long> COMPARE_AND_DELETE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    // 清理已过期的会话，会话数达到上限时移除最早过期的会话，然后写入新会话
+    private static final RedisScript<Long> ADD_SESSION = RedisScript.of("""
+            local now = tonumber(ARGV[3])
+            local fields = redis.call('HGETALL', KEYS[1])
+            local count = 0
+            local oldestField, oldestExpireAt
+            for i = 1, #fields, 2 do
+                local expireAt = tonumber(string.match(fields[i + 1], ':(%d+)'))
+                if expireAt == nil or expireAt <= now then
+                    redis.call('HDEL', KEYS[1], fields[i])
+                else
+                    count = count + 1
+                    if oldestExpireAt == nil or expireAt < oldestExpireAt then
+                        oldestField, oldestExpireAt = fields[i], expireAt
+                    end
+                end
+            end
+            if count >= tonumber(ARGV[4]) and oldestField then
+                redis.call('HDEL', KEYS[1], oldestField)
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[5])
+            return 1
+            """, Long.class);
+
+    // 轮换令牌：1替换成功，0会话不存在或已过期，2宽限期内的并发刷新，-1重复使用已替换的令牌（删除整个令牌族）
+    private static final RedisScript<Long> ROTATE_SESSION = RedisScript.of("""
+            local value = redis.call('HGET', KEYS[1], ARGV[1])
+            if not value then
+                return 0
+            end
+            local now = tonumber(ARGV[5])
+            local current, expireAt, previous, rotatedAt = string.match(value, '^([^:]+):(%d+):?([^:]*):?(%d*)$')
+            if current == ARGV[2] then
+                if tonumber(expireAt) <= now then
+                    redis.call('HDEL', KEYS[1], ARGV[1])
+                    return 0
+                end
+                redis.call('HSET', KEYS[1], ARGV[1], ARGV[3] .. ':' .. ARGV[4] .. ':' .. current .. ':' .. ARGV[5])
+                redis.call('PEXPIRE', KEYS[1], ARGV[7])
+                return 1
+            end
+            if previous == ARGV[2] and rotatedAt ~= '' and now - tonumber(rotatedAt) <= tonumber(ARGV[6]) then
+                return 2
+            end
+            redis.call('HDEL', KEYS[1], ARGV[1])
+            return -1
+            """, Long.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RefreshTokenProperties refreshTokenProperties;
+    private final Duration ttl;
+
+    public RefreshTokenStore(ReactiveStringRedisTemplate reactiveStringRedisTemplate,
+                             RefreshTokenProperties refreshTokenProperties) {
+        this.redisTemplate = reactiveStringRedisTemplate;
+        this.refreshTokenProperties = refreshTokenProperties;
+        this.ttl = Duration.of(RedisEnum.USER_REFRESH_TOKEN.getTtl(),
+                RedisEnum.USER_REFRESH_TOKEN.getTimeUnit().toChronoUnit());
+    }
+
+    /**
+     * 保存用户的刷新令牌，覆盖原有令牌
+     *
+     * @param userId
+     * @param refreshToken
+     * @return
+     */
+    public CompletableFuture<Boolean> saveAsync(Long userId, String refreshToken) {
+        return redisTemplate.opsForValue().set(key(userId), refreshToken, ttl).toFuture();
+    }
+
+    /**
+     * 查询用户的刷新令牌
+     *
+     * @param userId
+     * @return 不存在时结果为null
+     */
+    public CompletableFuture<String> getAsync(Long userId) {
+        return redisTemplate.opsForValue().get(key(userId)).toFuture();
+    }
+
+    /**
+     * 当前令牌与预期一致时删除
+     *
+     * @param userId
+     * @param expected
+     * @return 删除成功时结果为true
+     */
+    public CompletableFuture<Boolean> compareAndDeleteAsync(Long userId, String expected) {
+        return redisTemplate.execute(COMPARE_AND_DELETE, List.of(key(userId)), List.of(expected))
+                .next()
+                .map(result -> result == 1L)
+                .defaultIfEmpty(false)
+                .toFuture();
+    }
+
+    /**
+     * 删除多个用户的刷新令牌及轮换模式下的全部会话，所有DEL命令在同一连接上连续发送
+     *
+     * @param userIds
+     * @return 删除的键数量
+     */
+    public CompletableFuture<Long> deleteAllAsync(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return CompletableFuture.completedFuture(0L);
+        }
+        return redisTemplate.delete(Flux.fromIterable(userIds)
+                        .flatMapIterable(userId -> List.of(key(userId), sessionKey(userId))))
+                .toFuture();
+    }
+
+    /**
+     * 生成新的令牌族id
+     *
+     * @return
+     */
+    public static String newFamilyId() {
+        byte[] bytes = new byte[16];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 轮换模式下新增会话（用户在新设备登录）
+     *
+     * @param userId
+     * @param familyId
+     * @param refreshToken
+     * @return
+     */
+    public CompletableFuture<Boolean> addSessionAsync(Long userId, String familyId, String refreshToken) {
+        long now = System.currentTimeMillis();
+        String value = digest(refreshToken) + ":" + (now + ttl.toMillis());
+        return redisTemplate.execute(ADD_SESSION, List.of(sessionKey(userId)), List.of(familyId, value,
+                        Long.toString(now), Integer.toString(refreshTokenProperties.getMaxSessions()),
+                        Long.toString(ttl.toMillis())))
+                .next()
+                .map(result -> result == 1L)
+                .defaultIfEmpty(false)
+                .toFuture();
+    }
+
+    /**
+     * 轮换模式下用新令牌替换当前令牌
+     *
+     * @param userId
+     * @param familyId
+     * @param expected 请求携带的刷新令牌
+     * @param refreshToken 新签发的刷新令牌
+     * @return
+     */
+    public CompletableFuture<RotationResult> rotateSessionAsync(Long userId, String familyId, String expected,
+                                                                String refreshToken) {
+        long now = System.currentTimeMillis();
+        return redisTemplate.execute(ROTATE_SESSION, List.of(sessionKey(userId)), List.of(familyId,
+                        digest(expected), digest(refreshToken), Long.toString(now + ttl.toMillis()),
+                        Long.toString(now), Long.toString(refreshTokenProperties.getReuseGrace()),
+                        Long.toString(ttl.toMillis())))
+                .next()
+                .map(RotationResult::of)
+                .defaultIfEmpty(RotationResult.NOT_FOUND)
+                .toFuture();
+    }
+
+    /**
+     * 轮换模式下移除单个会话（用户在当前设备登出）
+     *
+     * @param userId
+     * @param familyId
+     * @return
+     */
+    public CompletableFuture<Long> removeSessionAsync(Long userId, String familyId) {
+        return redisTemplate.opsForHash().remove(sessionKey(userId), familyId).toFuture();
+    }
+
+    public String get(Long userId) {
+        return join(getAsync(userId));
+    }
+
+    public boolean compareAndDelete(Long userId, String expected) {
+        return join(compareAndDeleteAsync(userId, expected));
+    }
+
+    public boolean addSession(Long userId, String familyId, String refreshToken) {
+        return join(addSessionAsync(userId, familyId, refreshToken));
+    }
+
+    public RotationResult rotateSession(Long userId, String familyId, String expected, String refreshToken) {
+        return join(rotateSessionAsync(userId, familyId, expected, refreshToken));
+    }
+
+    /**
+     * 等待异步操作完成，并还原Redis操作抛出的原始异常
+     *
+     * @param future
+     * @param <T>
+     * @return
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String key(Long userId) {
+        return RedisEnum.USER_REFRESH_TOKEN.getKey() + userId;
+    }
+
+    private static String sessionKey(Long userId) {
+        return RedisEnum.USER_REFRESH_SESSION.getKey() + userId;
+    }
+
+    /**
+     * 计算令牌的SHA-256摘要，固定为43个字符
+     *
+     * @param token
+     * @return
+     */
+    static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 令牌轮换结果
+     */
+    public enum RotationResult {
+        ROTATED, // 替换成功
+        NOT_FOUND, // 会话不存在或已过期
+        CONFLICT, // 令牌刚被其他请求替换，视为并发刷新
+        REUSED; // 已替换的令牌被再次使用，整个令牌族已失效
+
+        private static RotationResult of(Long result) {
+            if (result == 1L) {
+                return ROTATED;
+            }
+            if (result == 2L) {
+                return CONFLICT;
+            }
+            return result == -1L ? REUSED : NOT_FOUND;
+        }
+    }
+}
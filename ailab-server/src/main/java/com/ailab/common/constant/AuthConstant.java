@@ -3,9 +3,14 @@ package com.ailab.common.constant;
 public class AuthConstant {
 
     public static final String JWT_CLAIMS_USER_INFO = "userInfo";
+    public static final String JWT_CLAIMS_FAMILY_ID = "fid";
+    public static final String JWT_CLAIMS_ISSUED_AT_MILLIS = "iatms";
 
     public static final String JWT_USER_INFO_EXPIRED_MESSAGE = "用户登录信息过期，请重新登录";
     public static final String LOGIN_FAILED_MESSAGE = "登录失败，账户名或密码错误";
     public static final String LOGIN_DISABLED_MESSAGE = "登录失败，账号已被禁用";
+    public static final String LOGIN_BUSY_MESSAGE = "登录请求过多，请稍后重试";
+    public static final String LOGIN_RATE_LIMITED_MESSAGE = "登录尝试过于频繁，请稍后重试";
+    public static final String REFRESH_CONFLICT_MESSAGE = "访问令牌正在刷新，请稍后重试";
 
 }
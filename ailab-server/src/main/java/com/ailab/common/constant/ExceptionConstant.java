@@ -8,4 +8,18 @@ public class ExceptionConstant {
     public static final String INVALID_PASSWORD = "密码格式不正确";
     public static final String INVALID_EMAIL = "邮箱格式不正确";
     public static final String PERMISSION_DENIED = "当前用户无权限";
+    public static final String INVALID_PAGE_CURSOR = "分页游标无效";
+    public static final String INVALID_ACCOUNT_NAME = "账户名不能为空且不超过11位";
+    public static final String INVALID_NAME = "姓名不能为空且不超过11位";
+    public static final String INVALID_SNO = "学号不能超过11位";
+    public static final String INVALID_ROLE = "身份权限不正确";
+    public static final String INVALID_STATUS = "账号状态不正确";
+    public static final String EMPTY_USER_IDS = "用户ID列表不能为空";
+    public static final String EMPTY_SEARCH_KEYWORD = "搜索关键词不能为空";
+    public static final String DUPLICATE_ACCOUNT_NAME = "账户名已存在";
+    public static final String DUPLICATE_SNO = "学号已存在";
+    public static final String DUPLICATE_EMAIL = "邮箱已存在";
+    public static final String IMPORT_TOO_MANY_ROWS = "导入行数超过上限";
+    public static final String INVALID_EXPORT_FORMAT = "导出格式不正确，仅支持csv和ndjson";
+    public static final String IMPORT_INVALID_HEADER = "导入文件表头不正确，至少需要accountName、password、name列";
 }
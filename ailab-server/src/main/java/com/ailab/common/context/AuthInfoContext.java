@@ -2,17 +2,27 @@ package com.ailab.common.context;
 
 public class AuthInfoContext {
 
-    private static final ThreadLocal<AuthLoginInfo> loginInfo = new ThreadLocal<>();
+    // 默认使用ThreadLocal，Java 21虚拟线程模式下替换为基于ScopedValue的实现
+    private static volatile AuthInfoHolder holder = new ThreadLocalAuthInfoHolder();
 
     public static AuthLoginInfo getLoginInfo() {
-        return loginInfo.get();
+        return holder.get();
     }
 
     public static void setLoginInfo(AuthLoginInfo authLoginInfo) {
-        loginInfo.set(authLoginInfo);
+        holder.set(authLoginInfo);
     }
 
     public static void clear() {
-        loginInfo.remove();
+        holder.clear();
+    }
+
+    /**
+     * 替换登录信息的存储方式，仅在应用启动时调用
+     *
+     * @param authInfoHolder
+     */
+    public static void setHolder(AuthInfoHolder authInfoHolder) {
+        holder = authInfoHolder;
     }
 }
@@ -0,0 +1,13 @@
+package com.ailab.common.context;
+
+/**
+ * 当前请求登录信息的存储方式
+ */
+public interface AuthInfoHolder {
+
+    AuthLoginInfo get();
+
+    void set(AuthLoginInfo authLoginInfo);
+
+    void clear();
+}
@@ -0,0 +1,24 @@
+package com.ailab.common.context;
+
+/**
+ * 基于ThreadLocal存储登录信息，默认实现
+ */
+public class ThreadLocalAuthInfoHolder implements AuthInfoHolder {
+
+    private final ThreadLocal<AuthLoginInfo> loginInfo = new ThreadLocal<>();
+
+    @Override
+    public AuthLoginInfo get() {
+        return loginInfo.get();
+    }
+
+    @Override
+    public void set(AuthLoginInfo authLoginInfo) {
+        loginInfo.set(authLoginInfo);
+    }
+
+    @Override
+    public void clear() {
+        loginInfo.remove();
+    }
+}
@@ -0,0 +1,8 @@
+package com.ailab.common.enums;
+
+public enum PageCountModeEnum {
+
+    EXACT, // 每次精确统计
+    CACHED, // 精确统计并短时间缓存
+    APPROXIMATE // 数据量超过阈值时使用表统计信息估算，否则同CACHED
+}
@@ -7,7 +7,13 @@ import java.util.concurrent.TimeUnit;
 @Getter
 public enum RedisEnum {
 
-    USER_REFRESH_TOKEN("user:refresh:token:", 7 * 24 * 60 * 60L, TimeUnit.SECONDS); // 用户刷新token
+    USER_REFRESH_TOKEN("user:refresh:token:", 7 * 24 * 60 * 60L, TimeUnit.SECONDS), // 用户刷新token
+    USER_REFRESH_SESSION("user:refresh:session:", 7 * 24 * 60 * 60L, TimeUnit.SECONDS), // 轮换模式下的用户会话，哈希结构，字段为令牌族id
+    USER_INFO("user:info:", 30 * 60L, TimeUnit.SECONDS), // 用户详细信息缓存
+    PAGE_COUNT("page:count:", 60L, TimeUnit.SECONDS), // 分页查询总记录数缓存，按表名区分
+    USER_REVOKED("user:revoked", 2 * 60 * 60L, TimeUnit.SECONDS), // 用户令牌吊销时间，哈希结构，过期时间以访问令牌有效期为准
+    LOGIN_FAILURE("login:failure:", 10 * 60L, TimeUnit.SECONDS), // 账户连续登录失败次数，过期时间为最长退避时长的两倍
+    LOGIN_BACKOFF("login:backoff:", 5 * 60L, TimeUnit.SECONDS); // 客户端地址|账户名组合的登录退避截止时间，过期时间等于本次退避时长
 
     private final String key; // Redis key前缀
     private final Long ttl; // 过期时间
@@ -18,4 +18,14 @@ public enum UserRoleEnum {
         this.value = value;
     }
 
+    /**
+     * 判断当前身份是否拥有指定身份的权限，管理员拥有普通用户的全部权限
+     *
+     * @param role
+     * @return
+     */
+    public boolean implies(UserRoleEnum role) {
+        return this == role || this == ADMIN;
+    }
+
 }
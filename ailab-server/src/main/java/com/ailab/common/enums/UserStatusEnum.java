@@ -17,4 +17,22 @@ public enum UserStatusEnum {
     UserStatusEnum(int value) {
         this.value = value;
     }
+
+    /**
+     * 根据状态值获取枚举
+     *
+     * @param value
+     * @return 状态值不存在时返回null
+     */
+    public static UserStatusEnum of(Integer value) {
+        if (value == null) {
+            return null;
+        }
+        for (UserStatusEnum status : values()) {
+            if (status.value == value) {
+                return status;
+            }
+        }
+        return null;
+    }
 }
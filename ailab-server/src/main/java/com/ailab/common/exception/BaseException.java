@@ -1,16 +1,22 @@
 package com.ailab.common.exception;
 
+/**
+ * 业务异常基类
+ * <p>
+ * 业务异常用于控制流程并返回提示信息，由全局异常处理统一转换为响应，调用栈没有排查价值，
+ * 因此不填充调用栈，抛出开销与普通对象创建相当。
+ */
 public class BaseException extends RuntimeException {
 
     public BaseException() {
-        super();
+        super(null, null, false, false);
     }
 
     public BaseException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 
     public BaseException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, false, false);
     }
 }
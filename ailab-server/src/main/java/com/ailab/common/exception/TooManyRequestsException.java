@@ -0,0 +1,12 @@
+package com.ailab.common.exception;
+
+public class TooManyRequestsException extends BaseException {
+
+    public TooManyRequestsException() {
+        super();
+    }
+
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
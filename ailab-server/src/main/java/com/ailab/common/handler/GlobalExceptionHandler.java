@@ -3,6 +3,7 @@ package com.ailab.common.handler;
 import com.ailab.common.exception.AuthException;
 import com.ailab.common.exception.BaseException;
 import com.ailab.common.exception.InfoNotFoundException;
+import com.ailab.common.exception.TooManyRequestsException;
 import com.ailab.common.result.ResponseResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -28,19 +29,31 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(InfoNotFoundException.class)
     public ResponseResult<Object> handleInfoNotFoundException(InfoNotFoundException e) {
-        log.error("信息未找到异常: {}", e.getMessage(), e);
+        log.warn("信息未找到异常: {}", e.getMessage());
         return ResponseResult.error(e.getMessage() == null ? "信息未找到" : e.getMessage());
     }
 
     @ExceptionHandler(BaseException.class)
     public ResponseResult<Object> handleBaseException(BaseException e) {
-        log.error("业务异常: {}", e.getMessage(), e);
+        // 业务异常本身不含调用栈，包装了底层异常时记录底层异常的调用栈
+        if (e.getCause() != null) {
+            log.warn("业务异常: {}", e.getMessage(), e.getCause());
+        } else {
+            log.warn("业务异常: {}", e.getMessage());
+        }
         return ResponseResult.error(e.getMessage() == null ? "业务异常" : e.getMessage());
     }
 
     @ExceptionHandler(AuthException.class)
     public ResponseResult<Object> handleAuthLoginException(AuthException e) {
-        log.error("权限异常: {}", e.getMessage(), e);
+        log.warn("权限异常: {}", e.getMessage());
         return ResponseResult.error(e.getMessage() == null ? "权限异常" : e.getMessage());
     }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ResponseResult<Object>> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过多: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .body(ResponseResult.error(e.getMessage() == null ? "请求过多" : e.getMessage()));
+    }
 }
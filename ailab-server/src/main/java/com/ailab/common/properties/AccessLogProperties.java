@@ -0,0 +1,15 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.access-log")
+@Data
+public class AccessLogProperties {
+
+    private boolean enabled = true; // 是否记录访问日志
+    private double sampleRate = 0.1; // 普通请求的采样比例，0到1之间
+    private long slowThreshold = 1000; // 耗时超过该值的请求总是记录，单位毫秒
+}
@@ -10,4 +10,7 @@ import org.springframework.stereotype.Component;
 public class AesProperties {
 
     private String key; // AES加密密钥
+    private int parallelThreshold = 512; // 批量加解密时，数量超过该值则多核并行处理
+    private String indexKey; // 邮箱盲索引密钥，与AES密钥相互独立
+    private int indexBackfillBatchSize = 1000; // 回填盲索引时每批读取和更新的行数
 }
@@ -0,0 +1,18 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.bcrypt")
+@Data
+public class BCryptProperties {
+
+    private int cost = 10; // 目标加密强度（log2轮数）
+    private boolean calibrate = false; // 是否在启动时根据本机性能自动选择加密强度
+    private long latencyBudget = 250; // 自动选择时单次加密允许的最长耗时，单位为毫秒
+    private int minCost = 10; // 自动选择时的最低加密强度
+    private int maxCost = 14; // 自动选择时的最高加密强度
+    private int batchThreads = Runtime.getRuntime().availableProcessors(); // 批量导入时并行加密的线程数
+}
@@ -0,0 +1,15 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.login")
+@Data
+public class LoginProperties {
+
+    private int verifyThreads = Runtime.getRuntime().availableProcessors(); // 密码校验线程数
+    private int verifyQueueCapacity = 64; // 密码校验等待队列长度上限，预计等待时间超过verifyTimeout时在入队前即拒绝
+    private long verifyTimeout = 2000; // 等待密码校验结果的最长时间，单位为毫秒，同时用于入队前的等待时间估算
+}
@@ -0,0 +1,22 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.login-rate-limit")
+@Data
+public class LoginRateLimitProperties {
+
+    private boolean enabled = true; // 是否启用登录限流
+    private int accountCapacity = 10; // 每个账户名在单个客户端地址上的令牌桶容量，即允许连续尝试的次数
+    private long accountRefillInterval = 30000; // 每个账户名在单个客户端地址上恢复一次尝试机会的间隔，单位毫秒
+    private int ipCapacity = 30; // 每个客户端地址的令牌桶容量，只有登录失败消耗令牌，令牌耗尽后拒绝该地址的所有登录
+    private long ipRefillInterval = 2000; // 每个客户端地址恢复一次失败机会的间隔，单位毫秒
+    private int backoffThreshold = 5; // 账户在所有地址上累计连续失败达到该次数后，发生失败的地址开始退避
+    private long backoffBase = 1000; // 首次退避时长，之后账户每次失败翻倍，单位毫秒
+    private long backoffMax = 300000; // 最长退避时长，单位毫秒
+    private int maximumSize = 100000; // 各限流表最多保留的键数量，超出时淘汰最久未使用且不在退避期内的键
+    private boolean redisMirror = false; // 是否将账户的连续失败次数和退避截止时间同步到Redis，多实例部署时共享退避状态
+}
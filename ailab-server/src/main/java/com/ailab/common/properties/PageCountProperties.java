@@ -0,0 +1,16 @@
+package com.ailab.common.properties;
+
+import com.ailab.common.enums.PageCountModeEnum;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.page-count")
+@Data
+public class PageCountProperties {
+
+    private PageCountModeEnum mode = PageCountModeEnum.CACHED; // 总记录数统计方式
+    private long localTtl = 10; // 本地缓存过期时间，单位为秒，Redis缓存过期时间见RedisEnum.PAGE_COUNT
+    private long approximateThreshold = 1000000; // 估算行数超过该值时使用估算值
+}
@@ -0,0 +1,15 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.refresh-token")
+@Data
+public class RefreshTokenProperties {
+
+    private boolean rotation = false; // 是否启用刷新令牌轮换，每次刷新签发新的刷新令牌并检测重复使用
+    private int maxSessions = 10; // 轮换模式下每个用户同时保留的最大会话（设备）数，超出时移除最早过期的会话
+    private long reuseGrace = 10000; // 轮换后旧令牌仍被视为并发刷新而非重复使用的时间，单位为毫秒
+}
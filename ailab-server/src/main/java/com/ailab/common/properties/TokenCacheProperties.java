@@ -0,0 +1,14 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.token-cache")
+@Data
+public class TokenCacheProperties {
+
+    private boolean enabled = true; // 是否启用已验证令牌缓存
+    private long maximumSize = 10000; // 缓存的最大令牌数量
+}
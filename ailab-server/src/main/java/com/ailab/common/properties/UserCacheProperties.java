@@ -0,0 +1,16 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.user-cache")
+@Data
+public class UserCacheProperties {
+
+    private boolean enabled = true; // 是否启用用户信息缓存
+    private long maximumSize = 5000; // 本地缓存的最大用户数量
+    private long localTtl = 60; // 本地缓存过期时间，单位为秒，Redis缓存过期时间见RedisEnum.USER_INFO
+    private long deleteDelay = 1000; // 缓存失效后延迟再次删除的时间，单位为毫秒，清除并发加载写回的旧数据，不大于0时不再次删除
+}
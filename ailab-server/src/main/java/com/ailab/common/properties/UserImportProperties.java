@@ -0,0 +1,14 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.user-import")
+@Data
+public class UserImportProperties {
+
+    private int batchSize = 500; // 每批校验、加密并写入数据库的行数
+    private int maxRows = 10000; // 单次导入的最大行数
+}
@@ -0,0 +1,17 @@
+package com.ailab.common.properties;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "ailab.user-search")
+@Data
+public class UserSearchProperties {
+
+    private boolean enabled = true; // 是否使用内存索引搜索用户，关闭或索引未就绪时使用数据库LIKE查询
+    private long rebuildInterval = 300000; // 从数据库全量重建索引的间隔，单位毫秒，用于同步其他实例的写入
+    private int loadBatchSize = 5000; // 重建索引时每批读取的行数
+    private int compactThreshold = 1000; // 增量更新累计超过该数量时合并到主索引
+    private int maxLimit = 50; // 单次搜索返回的最大结果数
+}
@@ -0,0 +1,53 @@
+package com.ailab.common.result;
+
+import com.ailab.common.constant.ExceptionConstant;
+import com.ailab.common.exception.InvalidParameterException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 游标分页的续页位置，对应排序键(create_time, account_name, id)，对客户端不透明
+ *
+ * @param createTime  上一页最后一条记录的创建时间
+ * @param accountName 上一页最后一条记录的账户名
+ * @param id          上一页最后一条记录的id
+ */
+public record PageCursor(LocalDateTime createTime, String accountName, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 编码为URL安全的Base64字符串，账户名放在最后，避免其中的分隔符影响解析
+     *
+     * @return
+     */
+    public String encode() {
+        String raw = createTime + SEPARATOR + id + SEPARATOR + accountName;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析游标
+     *
+     * @param cursor
+     * @return 游标为空时返回null，表示从第一页开始
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, 3);
+            if (parts.length != 3) {
+                throw new InvalidParameterException(ExceptionConstant.INVALID_PAGE_CURSOR);
+            }
+            return new PageCursor(LocalDateTime.parse(parts[0]), parts[2], Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_PAGE_CURSOR, e);
+        }
+    }
+}
@@ -23,8 +23,10 @@ public class PageResult<T> implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
-    private long total;
+    private Long total; // 总记录数，游标分页未统计时为null
+    private Boolean totalExact; // 总记录数是否为精确值，false表示根据表统计信息估算
     private long pageNum;
     private long pageSize;
     private List<T> data;
+    private String nextCursor; // 游标分页时下一页的游标，没有下一页时为null
 }
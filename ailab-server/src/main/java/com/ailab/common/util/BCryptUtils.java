@@ -14,6 +14,35 @@ public class BCryptUtils {
         return BCrypt.hashpw(data, BCrypt.gensalt());
     }
 
+    /**
+     * 使用指定强度对数据进行BCrypt加密
+     *
+     * @param data
+     * @param cost 加密强度（log2轮数）
+     * @return
+     */
+    public static String hashData(String data, int cost) {
+        return BCrypt.hashpw(data, BCrypt.gensalt(cost));
+    }
+
+    /**
+     * 获取BCrypt加密数据的加密强度，格式为 $2a$10$...
+     *
+     * @param hashData BCrypt加密后的数据
+     * @return 无法识别时返回-1
+     */
+    public static int getCost(String hashData) {
+        if (hashData == null || hashData.length() < 7 || hashData.charAt(0) != '$') {
+            return -1;
+        }
+        int offset = hashData.charAt(2) == '$' ? 3 : 4;
+        try {
+            return Integer.parseInt(hashData, offset, offset + 2, 10);
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
     /**
      * 验证数据是否匹配
      *
@@ -0,0 +1,69 @@
+package com.ailab.common.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvUtils {
+
+    /**
+     * 解析一行CSV，支持双引号包裹的字段及字段中转义的双引号，不支持字段内换行
+     *
+     * @param line
+     * @return
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * 转义CSV字段，包含逗号、双引号或换行时使用双引号包裹
+     * 以=、+、-、@、制表符或回车开头的字段在前面加单引号，避免在电子表格中打开时被当作公式执行
+     *
+     * @param value
+     * @return
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && isFormulaPrefix(value.charAt(0))) {
+            value = "'" + value;
+        }
+        boolean needQuote = false;
+        for (int i = 0; i < value.length() && !needQuote; i++) {
+            char c = value.charAt(i);
+            needQuote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return needQuote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static boolean isFormulaPrefix(char c) {
+        return c == '=' || c == '+' || c == '-' || c == '@' || c == '\t' || c == '\r';
+    }
+}
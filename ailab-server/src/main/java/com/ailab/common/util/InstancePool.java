@@ -0,0 +1,55 @@
+package com.ailab.common.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+/**
+ * 有状态且非线程安全对象（Cipher、Mac、MessageDigest等）的复用池
+ * <p>
+ * 与按线程缓存不同，实例的数量与并发使用的数量相关，而不是与线程数相关：虚拟线程模式下每个请求都是新线程，
+ * 按线程缓存会在每个请求中重新创建实例。池中没有空闲实例时直接创建，归还时池已满则丢弃。
+ *
+ * @param <T>
+ */
+public class InstancePool<T> {
+
+    private final Supplier<T> factory;
+    private final ArrayBlockingQueue<T> idle;
+
+    /**
+     * @param factory 创建新实例
+     * @param maxIdle 最多保留的空闲实例数
+     */
+    public InstancePool(Supplier<T> factory, int maxIdle) {
+        this.factory = factory;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * 按CPU核心数确定最多保留的空闲实例数，加解密等计算期间线程不会让出CPU，同时使用的实例数一般不超过核心数
+     *
+     * @param factory
+     */
+    public InstancePool(Supplier<T> factory) {
+        this(factory, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * 取出一个实例，使用完毕后调用release归还
+     *
+     * @return
+     */
+    public T borrow() {
+        T instance = idle.poll();
+        return instance != null ? instance : factory.get();
+    }
+
+    /**
+     * 归还实例，调用方需保证实例已处于可再次使用的状态
+     *
+     * @param instance
+     */
+    public void release(T instance) {
+        idle.offer(instance);
+    }
+}
@@ -1,20 +1,29 @@
 package com.ailab.common.util;
 
 
-import com.ailab.common.exception.BaseException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
+import com.ailab.common.component.JwtTokenEngine;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
 
-import java.security.Key;
-import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JwtUtils {
 
+    // 按密钥缓存的JWT引擎，避免每次调用都重新构建密钥和解析器
+    private static final Map<String, JwtTokenEngine> ENGINES = new ConcurrentHashMap<>();
+
+    /**
+     * 获取指定密钥对应的JWT引擎
+     *
+     * @param secretKey 秘钥
+     * @return
+     */
+    public static JwtTokenEngine getEngine(String secretKey) {
+        return ENGINES.computeIfAbsent(secretKey, JwtTokenEngine::new);
+    }
+
     /**
      * 生成token
      *
@@ -23,19 +32,8 @@ public class JwtUtils {
      * @param data       设置的信息
      * @return token
      */
-    public static <T> String createToken(String secretKey, Long expireTime, Map<String, Object> data) {
-        // 当前时间
-        Date now = new Date();
-        // 过期时间
-        Date expiration = new Date(now.getTime() + expireTime);
-
-        JwtBuilder builder = Jwts.builder()
-                .setClaims(data) // 设置载荷
-                .setIssuedAt(now)  // 设置签发时间
-                .setExpiration(expiration)  // 设置过期时间
-                .signWith(getKey(secretKey), SignatureAlgorithm.HS256);  // 设置签名
-
-        return builder.compact();
+    public static String createToken(String secretKey, Long expireTime, Map<String, Object> data) {
+        return getEngine(secretKey).createToken(expireTime, data);
     }
 
     /**
@@ -46,26 +44,7 @@ public class JwtUtils {
      * @return 设置的信息
      */
     public static Claims parseToken(String token, String secretKey) {
-        try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getKey(secretKey))
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (ExpiredJwtException | UnsupportedJwtException | MalformedJwtException | SignatureException |
-                 IllegalArgumentException e) {
-            throw new BaseException("token解析失败", e);
-        }
-    }
-
-    /**
-     * 获取签名密钥
-     *
-     * @param secretKey
-     * @return
-     */
-    private static Key getKey(String secretKey) {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+        return getEngine(secretKey).parseToken(token);
     }
 
     /**
@@ -78,12 +57,7 @@ public class JwtUtils {
      * @return
      */
     public static <T> T getObjectFromClaims(Claims claims, String key, Class<T> type) {
-        Object value = claims.get(key);
-        if (value instanceof Map) {
-            ObjectMapper mapper = new ObjectMapper();
-            return mapper.convertValue(value, type);
-        }
-        return null;
+        return JwtTokenEngine.getObjectFromClaims(claims, key, type);
     }
 
     /**
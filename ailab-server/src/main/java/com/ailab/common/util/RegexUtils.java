@@ -1,31 +1,117 @@
 package com.ailab.common.util;
 
+import java.util.regex.Pattern;
+
 public class RegexUtils {
 
-    // 邮箱正则
+    // 邮箱正则，校验时使用等价的手写扫描实现，见isValidEmail
     private static final String EMAIL_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
 
     // 密码正则，8-16位，至少包含一个字母和一个数字，可以包含特殊字符
     private static final String PASSWORD_REGEX = "^(?=.*[a-zA-Z])(?=.*\\d)[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?.]{8,16}$";
 
+    // 预编译的正则，避免每次校验都重新编译
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(PASSWORD_REGEX);
+
     /**
-     * 验证邮箱格式是否正确
+     * 验证邮箱格式是否不正确
      *
      * @param email
      * @return
      */
     public static boolean isInvalidEmail(String email) {
-        return email != null && email.matches(EMAIL_REGEX);
+        return !isValidEmail(email);
     }
 
     /**
-     * 验证密码格式是否正确
+     * 验证密码格式是否不正确
      * 密码必须为8-16位，至少包含一个字母和一个数字，可以包含特殊字符
      *
      * @param password
      * @return
      */
     public static boolean isInvalidPassword(String password) {
-        return password != null && password.matches(PASSWORD_REGEX);
+        return !isValidPassword(password);
+    }
+
+    /**
+     * 验证邮箱格式是否正确，与EMAIL_REGEX等价，逐字符扫描，不分配对象
+     * 本地部分为[a-zA-Z0-9._%+-]+，域名部分为[a-zA-Z0-9.-]+，且最后一个点之前至少有一个字符、之后为至少两个字母
+     *
+     * @param email
+     * @return
+     */
+    public static boolean isValidEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int length = email.length();
+
+        // 本地部分，遇到@结束
+        int at = 0;
+        while (at < length && email.charAt(at) != '@') {
+            if (!isEmailLocalChar(email.charAt(at))) {
+                return false;
+            }
+            at++;
+        }
+        if (at == 0 || at == length) {
+            return false;
+        }
+
+        // 域名部分，记录最后一个点的位置
+        int lastDot = -1;
+        for (int i = at + 1; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                lastDot = i;
+            } else if (!isLetterOrDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= at + 1 || length - lastDot - 1 < 2) {
+            return false;
+        }
+
+        // 顶级域名只能是字母
+        for (int i = lastDot + 1; i < length; i++) {
+            if (!isLetter(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证密码格式是否正确
+     *
+     * @param password
+     * @return
+     */
+    public static boolean isValidPassword(String password) {
+        return password != null && PASSWORD_PATTERN.matcher(password).matches();
+    }
+
+    /**
+     * 使用正则验证邮箱格式是否正确，结果与isValidEmail一致
+     *
+     * @param email
+     * @return
+     */
+    public static boolean isValidEmailByRegex(String email) {
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    private static boolean isEmailLocalChar(char c) {
+        return isLetterOrDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
     }
 }
@@ -0,0 +1,35 @@
+package com.ailab.config;
+
+import com.ailab.common.component.AesCipher;
+import com.ailab.common.component.BlindIndexer;
+import com.ailab.common.properties.AesProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AesConfig {
+
+    /**
+     * 根据配置的密钥构建AES加解密器，全局复用
+     *
+     * @param aesProperties
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public AesCipher aesCipher(AesProperties aesProperties, MeterRegistry meterRegistry) {
+        return new AesCipher(aesProperties.getKey(), aesProperties.getParallelThreshold(), meterRegistry);
+    }
+
+    /**
+     * 构建邮箱盲索引计算器，全局复用
+     *
+     * @param aesProperties
+     * @return
+     */
+    @Bean
+    public BlindIndexer blindIndexer(AesProperties aesProperties) {
+        return new BlindIndexer(aesProperties.getIndexKey());
+    }
+}
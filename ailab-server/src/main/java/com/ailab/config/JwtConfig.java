@@ -0,0 +1,22 @@
+package com.ailab.config;
+
+import com.ailab.common.component.JwtTokenEngine;
+import com.ailab.common.properties.JwtProperties;
+import com.ailab.common.util.JwtUtils;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JwtConfig {
+
+    /**
+     * 根据配置的密钥构建JWT引擎，全局复用
+     *
+     * @param jwtProperties
+     * @return
+     */
+    @Bean
+    public JwtTokenEngine jwtTokenEngine(JwtProperties jwtProperties) {
+        return JwtUtils.getEngine(jwtProperties.getSecretKey());
+    }
+}
@@ -1,5 +1,6 @@
 package com.ailab.config;
 
+import com.ailab.interceptor.PermissionInterceptor;
 import com.ailab.interceptor.TokenInterceptor;
 import io.micrometer.common.lang.NonNullApi;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,7 @@ public class MvcConfig implements WebMvcConfigurer {
     // 可以在这里添加一些全局的拦截器、视图解析器等配置
 
     private final TokenInterceptor tokenInterceptor;
+    private final PermissionInterceptor permissionInterceptor;
 
     /**
      * 添加拦截器
@@ -27,6 +29,11 @@ public class MvcConfig implements WebMvcConfigurer {
                 .addPathPatterns("/**") // 拦截所有请求
                 .excludePathPatterns("/api/auth/login",
                         "/api/auth/refresh"); // 排除接口
+        // 权限校验依赖TokenInterceptor设置的登录信息，必须在其后执行
+        registry.addInterceptor(permissionInterceptor)
+                .addPathPatterns("/**")
+                .excludePathPatterns("/api/auth/login",
+                        "/api/auth/refresh");
     }
 
 }
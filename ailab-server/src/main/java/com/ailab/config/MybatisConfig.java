@@ -1,8 +1,10 @@
 package com.ailab.config;
 
+import com.ailab.interceptor.StatementMetricsInterceptor;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -23,4 +25,15 @@ public class MybatisConfig {
         interceptor.addInnerInterceptor(paginationInnerInterceptor);
         return interceptor;
     }
+
+    /**
+     * 统计每条Mapper语句的执行耗时
+     *
+     * @param meterRegistry
+     * @return
+     */
+    @Bean
+    public StatementMetricsInterceptor statementMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new StatementMetricsInterceptor(meterRegistry);
+    }
 }
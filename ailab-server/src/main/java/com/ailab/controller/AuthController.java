@@ -19,23 +19,24 @@ public class AuthController {
     private final AuthService authService;
 
     @PostMapping("/login")
-    protected ResponseResult<AuthLoginVO> login(@RequestBody AuthLoginDTO loginInfo, HttpServletResponse response) {
-        log.info("用户登录请求：{}", loginInfo);
-        AuthLoginVO authLoginVO = authService.login(loginInfo, response);
+    protected ResponseResult<AuthLoginVO> login(@RequestBody AuthLoginDTO loginInfo, HttpServletRequest request,
+                                                HttpServletResponse response) {
+        log.debug("用户登录请求，账户名：{}", loginInfo.getAccountName());
+        AuthLoginVO authLoginVO = authService.login(loginInfo, request, response);
         return ResponseResult.success(authLoginVO);
     }
 
     @GetMapping("/logout")
-    protected ResponseResult<Void> logout() {
-        log.info("用户登出请求");
-        authService.logout();
+    protected ResponseResult<Void> logout(HttpServletRequest request, HttpServletResponse response) {
+        log.debug("用户登出请求");
+        authService.logout(request, response);
         return ResponseResult.success();
     }
 
     @GetMapping("/refresh")
-    protected ResponseResult<AuthLoginVO> refresh(HttpServletRequest request) {
-        log.info("用户刷新访问令牌请求");
-        AuthLoginVO authLoginVO = authService.refreshAccessToken(request);
+    protected ResponseResult<AuthLoginVO> refresh(HttpServletRequest request, HttpServletResponse response) {
+        log.debug("用户刷新访问令牌请求");
+        AuthLoginVO authLoginVO = authService.refreshAccessToken(request, response);
         return ResponseResult.success(authLoginVO);
     }
 
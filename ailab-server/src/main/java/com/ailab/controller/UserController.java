@@ -1,14 +1,28 @@
 package com.ailab.controller;
 
+import com.ailab.common.annotation.Permissions;
+import com.ailab.common.constant.ExceptionConstant;
 import com.ailab.common.enums.UserRoleEnum;
 import com.ailab.common.enums.UserStatusEnum;
+import com.ailab.common.exception.InvalidParameterException;
 import com.ailab.common.result.PageResult;
 import com.ailab.common.result.ResponseResult;
 import com.ailab.pojo.domain.User;
+import com.ailab.pojo.dto.UserStatusDTO;
+import com.ailab.pojo.vo.UserImportVO;
 import com.ailab.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -20,38 +34,125 @@ public class UserController {
 
     @GetMapping("/{id}")
     public ResponseResult<User> getUserInfo(@PathVariable("id") Long id) {
-        log.info("获取用户信息，用户ID：{}", id);
+        log.debug("获取用户信息，用户ID：{}", id);
         User user = userService.getUserInfo(id);
         return ResponseResult.success(user);
     }
 
+    @GetMapping("/search")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<List<User>> searchUsers(@RequestParam("keyword") String keyword,
+                                                  @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        log.debug("搜索用户，关键词：{}，数量：{}", keyword, limit);
+        return ResponseResult.success(userService.searchUsers(keyword, limit));
+    }
+
+    @GetMapping("/email")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<User> getUserByEmail(@RequestParam("email") String email) {
+        log.debug("根据邮箱获取用户信息");
+        User user = userService.getUserByEmail(email);
+        return ResponseResult.success(user);
+    }
+
+    @GetMapping("/email/exists")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<Boolean> existsEmail(@RequestParam("email") String email) {
+        log.debug("检查邮箱是否已被使用");
+        return ResponseResult.success(userService.existsEmail(email));
+    }
+
+    @PostMapping("/email-index/backfill")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<Integer> backfillEmailIndex() {
+        log.debug("回填邮箱盲索引");
+        int updated = userService.backfillEmailIndex();
+        return ResponseResult.success(updated);
+    }
+
     @PostMapping
     public ResponseResult<Void> saveUser(@RequestBody User user) {
-        log.info("保存用户信息：{}", user);
+        log.debug("保存用户信息，账户名：{}", user.getAccountName());
         userService.saveUser(user);
         return ResponseResult.success();
     }
 
     @PutMapping
     public ResponseResult<Void> updateUser(@RequestBody User user) {
-        log.info("更新用户信息：{}", user);
+        log.debug("更新用户信息，用户ID：{}", user.getId());
         userService.updateUser(user);
         return ResponseResult.success();
     }
 
+    @PostMapping("/batch")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<UserImportVO> importUsers(@RequestBody List<User> users) {
+        log.debug("批量导入用户，数量：{}", users.size());
+        UserImportVO result = userService.importUsers(users);
+        return ResponseResult.success(result);
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<UserImportVO> importUsersFromCsv(HttpServletRequest request) throws IOException {
+        log.debug("从CSV批量导入用户");
+        UserImportVO result = userService.importUsers(request.getInputStream());
+        return ResponseResult.success(result);
+    }
+
+    @GetMapping("/export")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(value = "format", defaultValue = "csv") String format) {
+        log.debug("导出用户，格式：{}", format);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_EXPORT_FORMAT);
+        }
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users." + (csv ? "csv" : "ndjson"))
+                .body(outputStream -> userService.exportUsers(outputStream, csv ? "csv" : "ndjson"));
+    }
+
     @GetMapping("/page")
     public ResponseResult<PageResult<User>> getUserPage(
             @RequestParam(value = "pageNum", defaultValue = "1") Long pageNum,
             @RequestParam(value = "pageSize", defaultValue = "10") Long pageSize) {
-        log.info("获取用户分页信息，页码：{}，每页大小：{}", pageNum, pageSize);
+        log.debug("获取用户分页信息，页码：{}，每页大小：{}", pageNum, pageSize);
         PageResult<User> result = userService.listUser(pageNum, pageSize);
         return ResponseResult.success(result);
     }
 
+    @GetMapping("/page/cursor")
+    public ResponseResult<PageResult<User>> getUserPageByCursor(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "pageSize", defaultValue = "10") Long pageSize,
+            @RequestParam(value = "withTotal", defaultValue = "false") Boolean withTotal) {
+        log.debug("游标分页获取用户信息，游标：{}，每页大小：{}", cursor, pageSize);
+        PageResult<User> result = userService.listUserByCursor(cursor, pageSize, withTotal);
+        return ResponseResult.success(result);
+    }
+
     @PutMapping("/{id}/status")
+    @Permissions(UserRoleEnum.ADMIN)
     public ResponseResult<Void> updateUserStatus(@PathVariable("id") Long id, @RequestParam("status") Integer status) {
-        log.info("更新用户状态，用户ID：{}，状态：{}", id, status);
-        // TODO：更新状态业务实现，以及用户相关接口的权限校验
-        return null;
+        log.debug("更新用户状态，用户ID：{}，状态：{}", id, status);
+        UserStatusEnum userStatus = UserStatusEnum.of(status);
+        if (userStatus == null) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_STATUS);
+        }
+        userService.updateUserStatus(id, userStatus);
+        return ResponseResult.success();
+    }
+
+    @PutMapping("/status")
+    @Permissions(UserRoleEnum.ADMIN)
+    public ResponseResult<Integer> updateUserStatus(@RequestBody UserStatusDTO userStatus) {
+        log.debug("批量更新用户状态，数量：{}，状态：{}",
+                userStatus.getIds() == null ? 0 : userStatus.getIds().size(), userStatus.getStatus());
+        int updated = userService.updateUserStatus(userStatus.getIds(), userStatus.getStatus());
+        return ResponseResult.success(updated);
     }
 }
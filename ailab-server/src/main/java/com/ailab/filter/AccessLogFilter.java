@@ -0,0 +1,127 @@
+package com.ailab.filter;
+
+import com.ailab.common.properties.AccessLogProperties;
+import io.micrometer.common.lang.NonNullApi;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 访问日志，每个请求结束后输出一行：请求方法、路径、状态码、耗时（毫秒）、用户id和客户端地址
+ * <p>
+ * 普通请求按比例采样，服务器错误和慢请求总是记录。日志通过独立的logger输出，
+ * 由logback-spring.xml中的异步appender写出，请求线程只负责格式化参数并放入队列，该appender不按级别提前丢弃，
+ * 只有队列完全占满时才会丢弃。
+ * 流式导出等异步请求在异步处理完成后记录。
+ */
+@Component
+@NonNullApi
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    public static final String LOGGER_NAME = "com.ailab.access"; // 访问日志logger名称
+    public static final String USER_ID_ATTRIBUTE = AccessLogFilter.class.getName() + ".userId"; // 当前用户id的请求属性
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    private final AccessLogProperties accessLogProperties;
+
+    public AccessLogFilter(AccessLogProperties accessLogProperties) {
+        this.accessLogProperties = accessLogProperties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !accessLogProperties.isEnabled() || !ACCESS_LOG.isInfoEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncLogListener(request, response, start));
+            } else {
+                log(request, status, start);
+            }
+        }
+    }
+
+    /**
+     * 判断请求是否需要记录
+     *
+     * @param status  响应状态码
+     * @param elapsed 耗时，纳秒
+     * @return
+     */
+    boolean shouldLog(int status, long elapsed) {
+        if (status >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR
+                || elapsed >= TimeUnit.MILLISECONDS.toNanos(accessLogProperties.getSlowThreshold())) {
+            return true;
+        }
+        double sampleRate = accessLogProperties.getSampleRate();
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void log(HttpServletRequest request, int status, long start) {
+        long elapsed = System.nanoTime() - start;
+        if (!shouldLog(status, elapsed)) {
+            return;
+        }
+        Object userId = request.getAttribute(USER_ID_ATTRIBUTE);
+        ACCESS_LOG.info("method={} uri={} status={} duration={} user={} ip={}", request.getMethod(),
+                request.getRequestURI(), status, elapsed / 1000 / 1000.0, userId == null ? "-" : userId,
+                request.getRemoteAddr());
+    }
+
+    /**
+     * 异步请求完成（包括超时和出错）后记录访问日志
+     */
+    private class AsyncLogListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+
+        private AsyncLogListener(HttpServletRequest request, HttpServletResponse response, long start) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            log(request, response.getStatus(), start);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ailab.interceptor;
+
+import com.ailab.common.annotation.Permissions;
+import com.ailab.common.constant.ExceptionConstant;
+import com.ailab.common.context.AuthInfoContext;
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.exception.BaseException;
+import com.ailab.common.exception.InvalidParameterException;
+import io.micrometer.common.lang.NonNullApi;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 权限校验拦截器，在TokenInterceptor之后执行
+ * 每个接口方法允许的身份集合在首次调用时解析并缓存，之后的校验只需查表
+ */
+@Slf4j
+@Component
+@NonNullApi
+public class PermissionInterceptor implements HandlerInterceptor {
+
+    // 未标注@Permissions的方法，无需校验
+    private static final EnumSet<UserRoleEnum> UNRESTRICTED = EnumSet.noneOf(UserRoleEnum.class);
+
+    private final Map<Method, EnumSet<UserRoleEnum>> allowedRoles = new ConcurrentHashMap<>();
+    private final Counter grantedCounter;
+    private final Counter deniedCounter;
+
+    public PermissionInterceptor(MeterRegistry meterRegistry) {
+        this.grantedCounter = Counter.builder("ailab.auth.permission")
+                .description("需要权限校验的请求数")
+                .tag("outcome", "granted")
+                .register(meterRegistry);
+        this.deniedCounter = Counter.builder("ailab.auth.permission")
+                .description("需要权限校验的请求数")
+                .tag("outcome", "denied")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+
+        EnumSet<UserRoleEnum> allowed = allowedRoles.computeIfAbsent(handlerMethod.getMethod(),
+                method -> resolveAllowedRoles(handlerMethod));
+        if (allowed == UNRESTRICTED) {
+            return true;
+        }
+
+        // 获取当前登录用户权限
+        AuthLoginInfo currentUserInfo = AuthInfoContext.getLoginInfo();
+        UserRoleEnum currentUserRole = currentUserInfo == null ? null : currentUserInfo.getRole();
+        if (currentUserRole == null) {
+            deniedCounter.increment();
+            log.warn("用户登录信息异常，权限校验失败");
+            throw new InvalidParameterException("用户登录信息异常，无法获取用户角色进行权限校验");
+        }
+
+        if (!allowed.contains(currentUserRole)) {
+            deniedCounter.increment();
+            log.warn("当前用户无权限，用户ID：{}，接口：{}", currentUserInfo.getId(), request.getRequestURI());
+            throw new BaseException(ExceptionConstant.PERMISSION_DENIED);
+        }
+        grantedCounter.increment();
+        return true;
+    }
+
+    /**
+     * 解析方法上的@Permissions注解，得到允许访问的全部身份（包括拥有所需身份权限的上级身份）
+     *
+     * @param handlerMethod
+     * @return
+     */
+    private static EnumSet<UserRoleEnum> resolveAllowedRoles(HandlerMethod handlerMethod) {
+        Permissions permissions = handlerMethod.getMethodAnnotation(Permissions.class);
+        if (permissions == null) {
+            return UNRESTRICTED;
+        }
+        EnumSet<UserRoleEnum> allowed = EnumSet.noneOf(UserRoleEnum.class);
+        for (UserRoleEnum role : UserRoleEnum.values()) {
+            for (UserRoleEnum required : permissions.value()) {
+                if (role.implies(required)) {
+                    allowed.add(role);
+                }
+            }
+        }
+        return allowed;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ailab.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MyBatis语句耗时统计，按Mapper方法和执行结果分别记录
+ * 批量执行器中的语句在flushStatements时才真正发送到数据库，单独记录为batch.flush
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class,
+                        BoundSql.class}),
+        @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+
+    private static final String BATCH_FLUSH = "batch.flush";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        // 无参方法（flushStatements）经JDK代理调用时参数数组为null
+        Object[] args = invocation.getArgs();
+        MappedStatement mappedStatement = args != null && args.length > 0 ? (MappedStatement) args[0] : null;
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            Object result = invocation.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            timer(mappedStatement, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(MappedStatement mappedStatement, String outcome) {
+        String id = mappedStatement == null ? BATCH_FLUSH : mappedStatement.getId();
+        return timers.computeIfAbsent(id + ":" + outcome, key -> Timer.builder("ailab.db.statement")
+                .description("数据库语句执行耗时")
+                .tags("statement", shortName(id),
+                        "type", mappedStatement == null ? "batch"
+                                : mappedStatement.getSqlCommandType().name().toLowerCase(),
+                        "outcome", outcome)
+                .register(meterRegistry));
+    }
+
+    /**
+     * 去掉Mapper的包名，例如 com.ailab.mapper.UserMapper.selectById -> UserMapper.selectById
+     *
+     * @param id
+     * @return
+     */
+    private static String shortName(String id) {
+        int method = id.lastIndexOf('.');
+        int mapper = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return mapper >= 0 ? id.substring(mapper + 1) : id;
+    }
+}
@@ -1,27 +1,50 @@
 package com.ailab.interceptor;
 
+import com.ailab.common.cache.TokenCache;
+import com.ailab.common.cache.TokenRevocationList;
+import com.ailab.common.component.JwtTokenEngine;
 import com.ailab.common.constant.AuthConstant;
 import com.ailab.common.context.AuthInfoContext;
 import com.ailab.common.context.AuthLoginInfo;
 import com.ailab.common.properties.JwtProperties;
-import com.ailab.common.util.JwtUtils;
+import com.ailab.filter.AccessLogFilter;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
 import io.micrometer.common.lang.NonNullApi;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.springframework.web.method.HandlerMethod;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
 @NonNullApi
-@RequiredArgsConstructor
-public class TokenInterceptor implements HandlerInterceptor {
+public class TokenInterceptor implements AsyncHandlerInterceptor {
 
     private final JwtProperties jwtProperties;
+    private final JwtTokenEngine jwtTokenEngine;
+    private final TokenCache tokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public TokenInterceptor(JwtProperties jwtProperties, JwtTokenEngine jwtTokenEngine, TokenCache tokenCache,
+                            TokenRevocationList tokenRevocationList, MeterRegistry meterRegistry) {
+        this.jwtProperties = jwtProperties;
+        this.jwtTokenEngine = jwtTokenEngine;
+        this.tokenCache = tokenCache;
+        this.tokenRevocationList = tokenRevocationList;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -31,42 +54,106 @@ public class TokenInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        log.info("拦截到请求：{} {}", request.getMethod(), request.getRequestURI());
+        log.debug("拦截到请求：{} {}", request.getMethod(), request.getRequestURI());
 
         String accessToken = request.getHeader(jwtProperties.getAccessTokenName());
 
+        long start = System.nanoTime();
+
         // 检查accessToken是否存在
         if (accessToken == null || accessToken.isEmpty()) {
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            log.warn("未提供访问令牌");
+            log.debug("未提供访问令牌");
+            record("none", "missing", start);
             return false;
         }
 
+        // 优先从已验证令牌缓存中获取用户信息
+        TokenCache.Entry entry = tokenCache.get(accessToken);
+        if (entry != null) {
+            // 用户登出或被禁用后，之前签发的令牌立即失效
+            if (tokenRevocationList.isRevoked(entry.loginInfo().getId(), entry.issuedAt())) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                log.warn("访问令牌已吊销");
+                record("cache", "revoked", start);
+                return false;
+            }
+            AuthInfoContext.setLoginInfo(entry.loginInfo());
+            request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, entry.loginInfo().getId());
+            record("cache", "success", start);
+            return true;
+        }
+
         // 验证token
         try {
-            Claims claims = JwtUtils.parseToken(accessToken, jwtProperties.getSecretKey());
-            AuthLoginInfo authLoginInfo = JwtUtils.getObjectFromClaims(claims,
-                    AuthConstant.JWT_CLAIMS_USER_INFO, AuthLoginInfo.class);
-            if (authLoginInfo == null) {
+            Claims claims = jwtTokenEngine.parseToken(accessToken);
+            AuthLoginInfo authLoginInfo = jwtTokenEngine.getLoginInfo(claims, AuthConstant.JWT_CLAIMS_USER_INFO);
+            if (authLoginInfo == null || authLoginInfo.getId() == null) {
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 log.warn("访问令牌解析失败，未找到用户信息");
+                record("jwt", "malformed", start);
                 return false; // 如果解析失败，返回401状态码
             }
+            long issuedAt = jwtTokenEngine.getIssuedAtMillis(claims);
+            if (tokenRevocationList.isRevoked(authLoginInfo.getId(), issuedAt)) {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                log.warn("访问令牌已吊销");
+                record("jwt", "revoked", start);
+                return false;
+            }
+            // 缓存验证结果，缓存项最迟在令牌过期时失效
+            tokenCache.put(accessToken, new TokenCache.Entry(authLoginInfo,
+                    issuedAt, claims.getExpiration().getTime()));
             // 将用户信息存储到上下文中，方便后续使用
             AuthInfoContext.setLoginInfo(authLoginInfo);
+            request.setAttribute(AccessLogFilter.USER_ID_ATTRIBUTE, authLoginInfo.getId());
+            record("jwt", "success", start);
             return true; // 验证通过，放行请求
         } catch (Exception e) {
             // 验证失败，返回401状态码
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            log.error("访问令牌验证失败: {}", e.getMessage());
+            log.warn("访问令牌验证失败: {}", e.getMessage());
+            record("jwt", failureOutcome(e), start);
             return false;
         }
 
     }
 
+    /**
+     * 记录令牌校验耗时
+     *
+     * @param source  cache命中已验证令牌缓存，jwt校验签名并解析，none未携带令牌
+     * @param outcome 校验结果
+     * @param start   开始时间，纳秒
+     */
+    private void record(String source, String outcome, long start) {
+        timers.computeIfAbsent(source + ":" + outcome, key -> Timer.builder("ailab.auth.token")
+                        .description("访问令牌校验耗时")
+                        .tags("source", source, "outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static String failureOutcome(Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof ExpiredJwtException) {
+            return "expired";
+        }
+        if (cause instanceof SignatureException) {
+            return "bad_signature";
+        }
+        return "malformed";
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
         // 清理线程变量，避免内存泄漏
         AuthInfoContext.clear();
     }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步请求（如流式导出）不会在当前线程回调afterCompletion，在此清理线程变量
+        AuthInfoContext.clear();
+    }
 }
@@ -3,7 +3,38 @@ package com.ailab.mapper;
 import com.ailab.pojo.domain.User;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.session.ResultHandler;
 
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
+
+    /**
+     * 根据MySQL表统计信息估算用户表行数
+     *
+     * @return
+     */
+    Long estimateCount();
+
+    /**
+     * 批量导入时插入单个用户，配合批量执行器使用
+     *
+     * @param user
+     * @return
+     */
+    int insertForImport(User user);
+
+    /**
+     * 回填单个用户的邮箱盲索引，不修改更新时间，配合批量执行器使用
+     *
+     * @param user 只使用id和emailIndex
+     * @return
+     */
+    int updateEmailIndex(User user);
+
+    /**
+     * 按id顺序流式读取全部用户，不包含密码，邮箱为密文
+     *
+     * @param handler 逐行处理
+     */
+    void streamForExport(ResultHandler<User> handler);
 }
@@ -3,6 +3,8 @@ package com.ailab.pojo.domain;
 import com.ailab.common.enums.UserRoleEnum;
 import com.ailab.common.enums.UserStatusEnum;
 import com.baomidou.mybatisplus.annotation.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -13,7 +15,7 @@ import java.time.LocalDateTime;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @TableName("user")
 public class User {
 
@@ -25,20 +27,32 @@ CREATE TABLE IF NOT EXISTS user
     password     VARCHAR(100) NOT NULL COMMENT '密码，加密存储',
     name         VARCHAR(11)  NOT NULL COMMENT '用户姓名',
     email        VARCHAR(32) COMMENT '用户邮箱',
+    email_index  CHAR(43) COMMENT '邮箱盲索引，小写邮箱的HMAC-SHA256',
     role         TINYINT      NOT NULL COMMENT '身份权限，1管理员，0普通用户',
     sno          CHAR(11) UNIQUE COMMENT '学号',
     status       TINYINT      NOT NULL DEFAULT 0 COMMENT '账号状态，0禁用，1启用',
     create_time  DATETIME              DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    update_time  DATETIME              DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
-) COMMENT '用户表';*/
+    update_time  DATETIME              DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    INDEX idx_user_create_time (create_time, account_name, id), -- 分页排序及游标分页
+    UNIQUE INDEX uk_user_email_index (email_index) -- 按邮箱查询，邮箱唯一，未填写邮箱（NULL）不受限制
+) COMMENT '用户表';
+
+-- 已有数据库升级，添加列后调用 POST /api/user/email-index/backfill 回填，处理重复邮箱后再添加唯一索引
+ALTER TABLE user
+    ADD COLUMN email_index CHAR(43) COMMENT '邮箱盲索引，小写邮箱的HMAC-SHA256' AFTER email;
+ALTER TABLE user
+    ADD UNIQUE INDEX uk_user_email_index (email_index);*/
 
     @TableId(type = IdType.AUTO)
     private Long id; // 用户id
 
     private String accountName; // 账户名
-    private String password; // 密码，加密存储
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String password; // 密码，加密存储，只接收不返回
     private String name; // 用户姓名
     private String email; // 用户邮箱
+    @JsonIgnore
+    private String emailIndex; // 邮箱盲索引，由邮箱计算得出，不对外暴露
     private UserRoleEnum role; // 身份权限，1管理员，0普通用户
     private String sno; // 学号
     private UserStatusEnum status; // 账号状态，0禁用，1启用
@@ -53,9 +67,10 @@ CREATE TABLE IF NOT EXISTS user
         return "UserDO{" +
                 "id=" + id +
                 ", accountName='" + accountName + '\'' +
-                ", password='" + password + '\'' +
+                ", password='******'" +
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
+                ", emailIndex='" + emailIndex + '\'' +
                 ", role=" + role +
                 ", sno='" + sno + '\'' +
                 ", status=" + status +
@@ -18,7 +18,7 @@ public class AuthLoginDTO {
     public String toString() {
         return "AuthLoginVO{" +
                 "accountName='" + accountName + '\'' +
-                ", password='" + password + '\'' +
+                ", password='******'" +
                 '}';
     }
 }
@@ -0,0 +1,19 @@
+package com.ailab.pojo.dto;
+
+import com.ailab.common.enums.UserStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserStatusDTO {
+
+    private List<Long> ids; // 用户ID列表
+    private UserStatusEnum status; // 账号状态，1启用，0禁用
+}
@@ -0,0 +1,30 @@
+package com.ailab.pojo.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportVO {
+
+    private int total; // 总行数
+    private int successCount; // 导入成功行数
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>(); // 导入失败的行及原因
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 行号，从1开始，不含表头
+        private String accountName; // 账户名
+        private String message; // 失败原因
+    }
+}
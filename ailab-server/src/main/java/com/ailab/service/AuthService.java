@@ -5,11 +5,15 @@ import com.ailab.pojo.vo.AuthLoginVO;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.Collection;
+
 public interface AuthService {
 
-    AuthLoginVO login(AuthLoginDTO loginInfo, HttpServletResponse response);
+    AuthLoginVO login(AuthLoginDTO loginInfo, HttpServletRequest request, HttpServletResponse response);
+
+    void logout(HttpServletRequest request, HttpServletResponse response);
 
-    void logout();
+    AuthLoginVO refreshAccessToken(HttpServletRequest request, HttpServletResponse response);
 
-    AuthLoginVO refreshAccessToken(HttpServletRequest request);
+    void revokeSessions(Collection<Long> userIds);
 }
@@ -1,19 +1,44 @@
 package com.ailab.service;
 
+import com.ailab.common.enums.UserStatusEnum;
 import com.ailab.common.result.PageResult;
 import com.ailab.pojo.domain.User;
-import com.ailab.pojo.dto.AuthLoginDTO;
-import com.ailab.pojo.vo.AuthLoginVO;
+import com.ailab.pojo.vo.UserImportVO;
 import com.baomidou.mybatisplus.extension.service.IService;
-import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
 
 public interface UserService extends IService<User> {
 
     User getUserInfo(Long id);
 
+    User getUserByEmail(String email);
+
+    boolean existsEmail(String email);
+
+    List<User> searchUsers(String keyword, int limit);
+
     void saveUser(User user);
 
     void updateUser(User user);
 
+    void updateUserStatus(Long id, UserStatusEnum status);
+
+    int updateUserStatus(Collection<Long> ids, UserStatusEnum status);
+
     PageResult<User> listUser(long pageNum, long pageSize);
+
+    PageResult<User> listUserByCursor(String cursor, long pageSize, boolean withTotal);
+
+    UserImportVO importUsers(List<User> users);
+
+    UserImportVO importUsers(InputStream csv) throws IOException;
+
+    void exportUsers(OutputStream outputStream, String format) throws IOException;
+
+    int backfillEmailIndex();
 }
@@ -1,13 +1,21 @@
 package com.ailab.service.impl;
 
+import com.ailab.common.cache.TokenCache;
+import com.ailab.common.cache.TokenRevocationList;
+import com.ailab.common.component.JwtTokenEngine;
+import com.ailab.common.component.LoginRateLimiter;
+import com.ailab.common.component.PasswordHasher;
+import com.ailab.common.component.PasswordVerifier;
+import com.ailab.common.component.RefreshTokenStore;
 import com.ailab.common.constant.AuthConstant;
 import com.ailab.common.context.AuthInfoContext;
 import com.ailab.common.context.AuthLoginInfo;
-import com.ailab.common.enums.RedisEnum;
 import com.ailab.common.enums.UserStatusEnum;
 import com.ailab.common.exception.AuthException;
+import com.ailab.common.exception.BaseException;
+import com.ailab.common.exception.TooManyRequestsException;
 import com.ailab.common.properties.JwtProperties;
-import com.ailab.common.util.BCryptUtils;
+import com.ailab.common.properties.RefreshTokenProperties;
 import com.ailab.common.util.JwtUtils;
 import com.ailab.mapper.UserMapper;
 import com.ailab.pojo.domain.User;
@@ -15,51 +23,81 @@ import com.ailab.pojo.dto.AuthLoginDTO;
 import com.ailab.pojo.vo.AuthLoginVO;
 import com.ailab.service.AuthService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.mindrot.jbcrypt.BCrypt;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private final UserMapper userMapper;
     private final JwtProperties jwtProperties;
-    private final StringRedisTemplate stringRedisTemplate;
+    private final JwtTokenEngine jwtTokenEngine;
+    private final RefreshTokenStore refreshTokenStore;
+    private final RefreshTokenProperties refreshTokenProperties;
+    private final TokenCache tokenCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final PasswordVerifier passwordVerifier;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
 
 
     /**
      * 用户登录
      *
      * @param loginInfo
+     * @param request
+     * @param response
      * @return
      */
     @Override
-    public AuthLoginVO login(AuthLoginDTO loginInfo, HttpServletResponse response) {
+    public AuthLoginVO login(AuthLoginDTO loginInfo, HttpServletRequest request, HttpServletResponse response) {
+        return timed("ailab.auth.login", () -> doLogin(loginInfo, request.getRemoteAddr(), response));
+    }
+
+    private AuthLoginVO doLogin(AuthLoginDTO loginInfo, String clientIp, HttpServletResponse response) {
+        // 按账户名和客户端地址限流，在查询数据库和校验密码之前拒绝
+        loginRateLimiter.acquire(loginInfo.getAccountName(), clientIp);
+
         // 查询用户信息
         User user = userMapper.selectOne(new LambdaQueryWrapper<>(User.class)
                 .select(User::getId, User::getPassword, User::getRole, User::getStatus)
                 .eq(User::getAccountName, loginInfo.getAccountName()));
 
         // 判断账户名和密码是否匹配
-        if (user == null || !BCryptUtils.checkData(loginInfo.getPassword(), user.getPassword())) {
+        if (user == null || !verifyPassword(loginInfo, user, clientIp)) {
+            loginRateLimiter.onFailure(loginInfo.getAccountName(), clientIp);
             throw new AuthException(AuthConstant.LOGIN_FAILED_MESSAGE);
         }
+        loginRateLimiter.onSuccess(loginInfo.getAccountName(), clientIp);
 
         // 判断账号是否被禁用
         if (user.getStatus() == UserStatusEnum.DISABLED) {
             throw new AuthException(AuthConstant.LOGIN_DISABLED_MESSAGE);
         }
 
+        // 密码加密强度与目标强度不一致时，异步重新加密并更新
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehashPassword(user.getId(), loginInfo.getPassword(), user.getPassword());
+        }
+
         // 生成访问令牌和刷新令牌
         AuthLoginInfo authLoginInfo = AuthLoginInfo.builder()
                 .id(user.getId())
@@ -67,21 +105,25 @@ public class AuthServiceImpl implements AuthService {
                 .role(user.getRole())
                 .build();
 
-        String accessToken = JwtUtils.createToken(jwtProperties.getSecretKey(),
-                jwtProperties.getAccessTokenExpiration(),
-                Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, authLoginInfo));
+        // 将刷新令牌存入redis，等待写入结果的同时生成访问令牌；轮换模式下每次登录创建新的令牌族
+        String refreshToken;
+        CompletableFuture<Boolean> saved;
+        if (refreshTokenProperties.isRotation()) {
+            String familyId = RefreshTokenStore.newFamilyId();
+            refreshToken = createRefreshToken(authLoginInfo, familyId);
+            saved = refreshTokenStore.addSessionAsync(user.getId(), familyId, refreshToken);
+        } else {
+            refreshToken = createRefreshToken(authLoginInfo, null);
+            saved = refreshTokenStore.saveAsync(user.getId(), refreshToken);
+        }
 
-        String refreshToken = JwtUtils.createToken(jwtProperties.getSecretKey(),
-                jwtProperties.getRefreshTokenExpiration(),
+        String accessToken = jwtTokenEngine.createToken(jwtProperties.getAccessTokenExpiration(),
                 Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, authLoginInfo));
 
         // 将刷新令牌存储在 Cookie 中
-        JwtUtils.setRefreshTokenToCookie(response, refreshToken, jwtProperties.getRefreshTokenName(),
-                jwtProperties.getCookieDomain(), (int) (jwtProperties.getRefreshTokenExpiration() / 1000));
+        setRefreshTokenCookie(response, refreshToken);
 
-        // 将刷新令牌存入redis
-        stringRedisTemplate.opsForValue().set(RedisEnum.USER_REFRESH_TOKEN.getKey() + user.getId(),
-                refreshToken, RedisEnum.USER_REFRESH_TOKEN.getTtl(), RedisEnum.USER_REFRESH_TOKEN.getTimeUnit());
+        RefreshTokenStore.join(saved);
 
         // 返回登录信息
         return AuthLoginVO.builder()
@@ -94,51 +136,83 @@ public class AuthServiceImpl implements AuthService {
 
     /**
      * 用户登出
+     * 轮换模式下只移除当前设备的令牌族，其他设备的访问令牌同样被吊销，但可以通过各自的刷新令牌重新获取
+     *
+     * @param request
+     * @param response
      */
     @Override
-    public void logout() {
-        // 清除用户的刷新令牌
-        stringRedisTemplate.opsForValue().getAndDelete(RedisEnum.USER_REFRESH_TOKEN.getKey()
-                + AuthInfoContext.getLoginInfo().getId());
+    public void logout(HttpServletRequest request, HttpServletResponse response) {
+        Long userId = AuthInfoContext.getLoginInfo().getId();
+        if (!refreshTokenProperties.isRotation()) {
+            revokeSessions(List.of(userId));
+            return;
+        }
+
+        String familyId = getRefreshTokenFromCookie(request)
+                .map(this::getFamilyId)
+                .orElse(null);
+        CompletableFuture<Long> removed = familyId == null ? CompletableFuture.completedFuture(0L)
+                : refreshTokenStore.removeSessionAsync(userId, familyId);
+        tokenCache.invalidateUser(userId);
+        tokenRevocationList.revoke(userId);
+        setRefreshTokenCookie(response, null);
+        RefreshTokenStore.join(removed);
     }
 
     /**
      * 刷新访问令牌
+     * 轮换模式下同时签发新的刷新令牌，已被替换的刷新令牌再次使用时整个令牌族失效
      *
      * @param request
+     * @param response
      * @return
      */
     @Override
-    public AuthLoginVO refreshAccessToken(HttpServletRequest request) {
+    public AuthLoginVO refreshAccessToken(HttpServletRequest request, HttpServletResponse response) {
+        return timed("ailab.auth.refresh", () -> doRefreshAccessToken(request, response));
+    }
+
+    private AuthLoginVO doRefreshAccessToken(HttpServletRequest request, HttpServletResponse response) {
         // 获取cookie中的刷新令牌
-        String refreshToken = Optional.ofNullable(request.getCookies())
-                .flatMap(cookies -> Arrays.stream(cookies)
-                        .filter(cookie -> jwtProperties.getRefreshTokenName().equals(cookie.getName()))
-                        .map(Cookie::getValue)
-                        .findFirst())
+        String refreshToken = getRefreshTokenFromCookie(request)
                 .orElseThrow(() -> new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE));
 
         // 解析刷新令牌
-        Claims claims = JwtUtils.parseToken(refreshToken, jwtProperties.getSecretKey());
+        Claims claims = jwtTokenEngine.parseToken(refreshToken);
         if (claims == null) {
             throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
         }
 
         // 获取用户信息
-        AuthLoginInfo authLoginInfo = JwtUtils.getObjectFromClaims(claims, AuthConstant.JWT_CLAIMS_USER_INFO, AuthLoginInfo.class);
+        AuthLoginInfo authLoginInfo = jwtTokenEngine.getLoginInfo(claims, AuthConstant.JWT_CLAIMS_USER_INFO);
         if (authLoginInfo == null) {
             throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
         }
 
-        // 检查用户的刷新令牌是否与redis中的一致
-        String redisRefreshToken = stringRedisTemplate.opsForValue().get(RedisEnum.USER_REFRESH_TOKEN.getKey() + authLoginInfo.getId());
-        if (redisRefreshToken == null || !redisRefreshToken.equals(refreshToken)) {
-            throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
+        String familyId = claims.get(AuthConstant.JWT_CLAIMS_FAMILY_ID, String.class);
+        if (refreshTokenProperties.isRotation() && familyId != null) {
+            rotateRefreshToken(authLoginInfo, familyId, refreshToken, response);
+        } else if (refreshTokenProperties.isRotation()) {
+            // 开启轮换前签发的刷新令牌，先原子地删除旧令牌，只有删除成功的请求才能转换为新的令牌族，
+            // 避免并发刷新时同一个旧令牌创建出多个令牌族
+            if (!refreshTokenStore.compareAndDelete(authLoginInfo.getId(), refreshToken)) {
+                throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
+            }
+            String newFamilyId = RefreshTokenStore.newFamilyId();
+            String newRefreshToken = createRefreshToken(authLoginInfo, newFamilyId);
+            refreshTokenStore.addSession(authLoginInfo.getId(), newFamilyId, newRefreshToken);
+            setRefreshTokenCookie(response, newRefreshToken);
+        } else {
+            // 检查用户的刷新令牌是否与redis中的一致
+            String redisRefreshToken = refreshTokenStore.get(authLoginInfo.getId());
+            if (redisRefreshToken == null || !redisRefreshToken.equals(refreshToken)) {
+                throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
+            }
         }
 
         // 生成新的访问令牌
-        String newAccessToken = JwtUtils.createToken(jwtProperties.getSecretKey(),
-                jwtProperties.getAccessTokenExpiration(),
+        String newAccessToken = jwtTokenEngine.createToken(jwtProperties.getAccessTokenExpiration(),
                 Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, authLoginInfo));
 
         return AuthLoginVO.builder()
@@ -149,4 +223,161 @@ public class AuthServiceImpl implements AuthService {
                 .build();
 
     }
+
+    /**
+     * 使用户的全部会话失效：删除刷新令牌，清除已缓存的访问令牌，并通知所有实例吊销此前签发的访问令牌，
+     * 删除刷新令牌与写入吊销记录同时进行
+     *
+     * @param userIds
+     */
+    @Override
+    public void revokeSessions(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        CompletableFuture<Long> deleted = refreshTokenStore.deleteAllAsync(userIds);
+        tokenCache.invalidateUsers(userIds);
+        tokenRevocationList.revokeAll(userIds);
+        RefreshTokenStore.join(deleted);
+    }
+
+    /**
+     * 记录登录、刷新的耗时，按结果区分：success成功，denied凭证或令牌无效、账号被禁用，busy请求过多被拒绝，error其他异常（如Redis不可用）
+     *
+     * @param name
+     * @param action
+     * @return
+     */
+    private AuthLoginVO timed(String name, Supplier<AuthLoginVO> action) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            AuthLoginVO result = action.get();
+            outcome = "success";
+            return result;
+        } catch (TooManyRequestsException e) {
+            outcome = "busy";
+            throw e;
+        } catch (BaseException e) {
+            outcome = "denied";
+            throw e;
+        } finally {
+            String tag = outcome;
+            timers.computeIfAbsent(name + ":" + tag, key -> Timer.builder(name)
+                            .tag("outcome", tag)
+                            .register(meterRegistry))
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 轮换刷新令牌，成功后将新令牌写入Cookie
+     *
+     * @param authLoginInfo
+     * @param familyId
+     * @param refreshToken
+     * @param response
+     */
+    private void rotateRefreshToken(AuthLoginInfo authLoginInfo, String familyId, String refreshToken,
+                                    HttpServletResponse response) {
+        String newRefreshToken = createRefreshToken(authLoginInfo, familyId);
+        switch (refreshTokenStore.rotateSession(authLoginInfo.getId(), familyId, refreshToken, newRefreshToken)) {
+            case ROTATED -> setRefreshTokenCookie(response, newRefreshToken);
+            case CONFLICT -> throw new AuthException(AuthConstant.REFRESH_CONFLICT_MESSAGE);
+            case REUSED -> {
+                log.warn("检测到刷新令牌重复使用，令牌族已失效，用户ID：{}", authLoginInfo.getId());
+                throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
+            }
+            default -> throw new AuthException(AuthConstant.JWT_USER_INFO_EXPIRED_MESSAGE);
+        }
+    }
+
+    /**
+     * 生成刷新令牌，轮换模式下携带令牌族id和随机id，保证同一秒内签发的令牌也互不相同
+     *
+     * @param authLoginInfo
+     * @param familyId 非轮换模式为null
+     * @return
+     */
+    private String createRefreshToken(AuthLoginInfo authLoginInfo, String familyId) {
+        if (familyId == null) {
+            return jwtTokenEngine.createToken(jwtProperties.getRefreshTokenExpiration(),
+                    Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, authLoginInfo));
+        }
+        return jwtTokenEngine.createToken(jwtProperties.getRefreshTokenExpiration(),
+                Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, authLoginInfo,
+                        AuthConstant.JWT_CLAIMS_FAMILY_ID, familyId,
+                        Claims.ID, RefreshTokenStore.newFamilyId()));
+    }
+
+    /**
+     * 获取cookie中的刷新令牌
+     *
+     * @param request
+     * @return
+     */
+    private Optional<String> getRefreshTokenFromCookie(HttpServletRequest request) {
+        return Optional.ofNullable(request.getCookies())
+                .flatMap(cookies -> Arrays.stream(cookies)
+                        .filter(cookie -> jwtProperties.getRefreshTokenName().equals(cookie.getName()))
+                        .map(Cookie::getValue)
+                        .findFirst());
+    }
+
+    /**
+     * 获取刷新令牌中的令牌族id，令牌无效时返回null
+     *
+     * @param refreshToken
+     * @return
+     */
+    private String getFamilyId(String refreshToken) {
+        try {
+            return jwtTokenEngine.parseToken(refreshToken).get(AuthConstant.JWT_CLAIMS_FAMILY_ID, String.class);
+        } catch (BaseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 将刷新令牌写入Cookie，refreshToken为null时清除Cookie
+     *
+     * @param response
+     * @param refreshToken
+     */
+    private void setRefreshTokenCookie(HttpServletResponse response, String refreshToken) {
+        JwtUtils.setRefreshTokenToCookie(response, refreshToken == null ? "" : refreshToken,
+                jwtProperties.getRefreshTokenName(), jwtProperties.getCookieDomain(),
+                refreshToken == null ? 0 : (int) (jwtProperties.getRefreshTokenExpiration() / 1000));
+    }
+
+    /**
+     * 校验密码，校验线程池繁忙导致未执行校验时退还本次登录消耗的限流令牌
+     *
+     * @param loginInfo
+     * @param user
+     * @param clientIp
+     * @return
+     */
+    private boolean verifyPassword(AuthLoginDTO loginInfo, User user, String clientIp) {
+        try {
+            return passwordVerifier.verify(loginInfo.getPassword(), user.getPassword());
+        } catch (TooManyRequestsException e) {
+            loginRateLimiter.release(loginInfo.getAccountName(), clientIp);
+            throw e;
+        }
+    }
+
+    /**
+     * 按目标强度重新加密密码，仅在数据库中的密码未被修改时更新
+     *
+     * @param userId
+     * @param password
+     * @param oldHashedPassword
+     */
+    private void rehashPassword(Long userId, String password, String oldHashedPassword) {
+        passwordVerifier.rehashAsync(() -> userMapper.update(new LambdaUpdateWrapper<User>()
+                .set(User::getPassword, passwordHasher.hash(password))
+                .eq(User::getId, userId)
+                .eq(User::getPassword, oldHashedPassword)));
+    }
 }
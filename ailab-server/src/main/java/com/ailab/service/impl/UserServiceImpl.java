@@ -1,30 +1,76 @@
 package com.ailab.service.impl;
 
+import com.ailab.common.cache.PageCountCache;
+import com.ailab.common.cache.UserCache;
+import com.ailab.common.cache.UserSearchIndex;
+import com.ailab.common.component.AesCipher;
+import com.ailab.common.component.BlindIndexer;
+import com.ailab.common.component.PasswordHasher;
 import com.ailab.common.constant.ExceptionConstant;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.enums.UserStatusEnum;
 import com.ailab.common.exception.BaseException;
 import com.ailab.common.exception.InfoNotFoundException;
 import com.ailab.common.exception.InvalidParameterException;
 import com.ailab.common.properties.AesProperties;
+import com.ailab.common.properties.UserImportProperties;
+import com.ailab.common.properties.UserSearchProperties;
+import com.ailab.common.result.PageCursor;
 import com.ailab.common.result.PageResult;
-import com.ailab.common.util.AesUtils;
-import com.ailab.common.util.BCryptUtils;
+import com.ailab.common.util.CsvUtils;
 import com.ailab.common.util.RegexUtils;
 import com.ailab.mapper.UserMapper;
 import com.ailab.pojo.domain.User;
+import com.ailab.pojo.vo.UserImportVO;
+import com.ailab.service.AuthService;
 import com.ailab.service.UserService;
 
+import com.baomidou.mybatisplus.core.batch.MybatisBatch;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements UserService {
 
+    // 用户表名，用于总记录数缓存
+    private static final String USER_TABLE = "user";
+    // 邮箱盲索引的唯一索引名，用于识别违反邮箱唯一约束的写入
+    private static final String EMAIL_INDEX_NAME = "uk_user_email_index";
+
     private final UserMapper userMapper;
+    private final AesCipher aesCipher;
+    private final BlindIndexer blindIndexer;
     private final AesProperties aesProperties;
+    private final PasswordHasher passwordHasher;
+    private final UserCache userCache;
+    private final PageCountCache pageCountCache;
+    private final UserImportProperties userImportProperties;
+    private final UserSearchIndex userSearchIndex;
+    private final UserSearchProperties userSearchProperties;
+    private final SqlSessionFactory sqlSessionFactory;
+    private final ObjectMapper objectMapper;
+    private final AuthService authService;
+
+    // 导出时每写入多少行刷新一次输出流
+    private static final int EXPORT_FLUSH_ROWS = 500;
+    // 批量更新状态时每条语句包含的最大用户数
+    private static final int STATUS_BATCH_SIZE = 1000;
+    private static final String EXPORT_CSV_HEADER = "id,accountName,name,email,role,sno,status,createTime";
 
     /**
      * 获取用户详细信息
@@ -34,23 +80,118 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
      */
     @Override
     public User getUserInfo(Long id) {
-        User user = userMapper.selectOne(new LambdaQueryWrapper<>(User.class)
+        User user = userCache.get(id, this::selectUserInfo);
+
+        if (user == null) {
+            throw new InfoNotFoundException(ExceptionConstant.USER_NOT_FOUND);
+        }
+
+        return user;
+    }
+
+    /**
+     * 从数据库查询用户详细信息，邮箱为密文
+     *
+     * @param id
+     * @return
+     */
+    private User selectUserInfo(Long id) {
+        return userMapper.selectOne(new LambdaQueryWrapper<>(User.class)
                 .select(User::getId, User::getAccountName, User::getName, User::getEmail,
                         User::getRole, User::getSno, User::getStatus, User::getCreateTime)
                 .eq(User::getId, id));
+    }
 
-        if (user == null) {
-            throw new InfoNotFoundException(ExceptionConstant.USER_NOT_FOUND);
+    /**
+     * 根据邮箱查询用户，通过盲索引定位，只解密命中的行
+     *
+     * @param email
+     * @return
+     */
+    @Override
+    public User getUserByEmail(String email) {
+        if (email == null || RegexUtils.isInvalidEmail(email.trim())) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_EMAIL);
         }
+        List<User> users = userMapper.selectList(new LambdaQueryWrapper<>(User.class)
+                .select(User::getId, User::getAccountName, User::getName, User::getEmail,
+                        User::getRole, User::getSno, User::getStatus, User::getCreateTime)
+                .eq(User::getEmailIndex, blindIndexer.index(email))
+                .orderByAsc(User::getId));
+        aesCipher.decryptAll(users, User::getEmail, User::setEmail);
+        // 解密后再比较一次明文，排除索引碰撞
+        return users.stream()
+                .filter(user -> email.trim().equalsIgnoreCase(user.getEmail()))
+                .findFirst()
+                .orElseThrow(() -> new InfoNotFoundException(ExceptionConstant.USER_NOT_FOUND));
+    }
 
-        // 对邮箱进行脱敏处理
-        String email = user.getEmail();
-        if (email != null) {
-            // 对邮箱进行格式校验
-            user.setEmail(AesUtils.decrypt(email, aesProperties.getKey()));
+    /**
+     * 判断邮箱是否已被使用
+     *
+     * @param email
+     * @return
+     */
+    @Override
+    public boolean existsEmail(String email) {
+        if (email == null || RegexUtils.isInvalidEmail(email.trim())) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_EMAIL);
         }
+        return existsEmailIndex(blindIndexer.index(email), null);
+    }
 
-        return user;
+    /**
+     * @param emailIndex
+     * @param excludeId  排除的用户id，更新时排除自身
+     * @return
+     */
+    private boolean existsEmailIndex(String emailIndex, Long excludeId) {
+        return userMapper.exists(new LambdaQueryWrapper<>(User.class)
+                .eq(User::getEmailIndex, emailIndex)
+                .ne(excludeId != null, User::getId, excludeId));
+    }
+
+    /**
+     * 按账户名、姓名、学号搜索用户，支持前缀和子串匹配
+     * 优先使用内存索引，索引未就绪时回退到数据库LIKE查询
+     *
+     * @param keyword
+     * @param limit   最多返回的用户数，超过上限时按上限返回
+     * @return 不包含邮箱
+     */
+    @Override
+    public List<User> searchUsers(String keyword, int limit) {
+        if (keyword == null || keyword.isBlank()) {
+            throw new InvalidParameterException(ExceptionConstant.EMPTY_SEARCH_KEYWORD);
+        }
+        int size = Math.max(1, Math.min(limit, userSearchProperties.getMaxLimit()));
+        if (userSearchIndex.isReady()) {
+            return userSearchIndex.search(keyword, size);
+        }
+        String query = keyword.trim();
+        return userMapper.selectList(new LambdaQueryWrapper<>(User.class)
+                .select(User::getId, User::getAccountName, User::getName, User::getSno, User::getRole,
+                        User::getStatus)
+                .like(User::getAccountName, query)
+                .or().like(User::getName, query)
+                .or().like(User::getSno, query)
+                .orderByAsc(User::getId)
+                .last("LIMIT " + size));
+    }
+
+    /**
+     * 用户写入后从数据库读取最新数据更新搜索索引，读取失败不影响写入结果，等待定期重建
+     *
+     * @param condition 要读取的用户
+     */
+    private void refreshSearchIndex(LambdaQueryWrapper<User> condition) {
+        try {
+            userSearchIndex.putAll(userMapper.selectList(condition
+                    .select(User::getId, User::getAccountName, User::getName, User::getSno, User::getRole,
+                            User::getStatus)));
+        } catch (RuntimeException e) {
+            log.warn("更新用户搜索索引失败：{}", e.getMessage());
+        }
     }
 
     /**
@@ -65,7 +206,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             throw new InvalidParameterException(ExceptionConstant.INVALID_PASSWORD);
         }
         // 对密码进行加密
-        user.setPassword(BCryptUtils.hashData(user.getPassword()));
+        user.setPassword(passwordHasher.hash(user.getPassword()));
 
         // 对邮箱进行加密
         if (user.getEmail() != null) {
@@ -73,14 +214,26 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             if (RegexUtils.isInvalidEmail(user.getEmail())) {
                 throw new InvalidParameterException(ExceptionConstant.INVALID_EMAIL);
             }
-            user.setEmail(AesUtils.encrypt(user.getEmail(), aesProperties.getKey()));
+            user.setEmailIndex(blindIndexer.index(user.getEmail()));
+            if (existsEmailIndex(user.getEmailIndex(), null)) {
+                throw new InvalidParameterException(ExceptionConstant.DUPLICATE_EMAIL);
+            }
+            user.setEmail(aesCipher.encrypt(user.getEmail()));
         }
 
         // 保存用户信息
-        int insert = userMapper.insert(user);
+        int insert;
+        try {
+            insert = userMapper.insert(user);
+        } catch (DuplicateKeyException e) {
+            throw translateDuplicateKey(e);
+        }
         if (insert <= 0) {
             throw new BaseException(ExceptionConstant.USER_SAVE_FAILED);
         }
+        userCache.invalidate(user.getId());
+        pageCountCache.invalidate(USER_TABLE);
+        refreshSearchIndex(new LambdaQueryWrapper<>(User.class).eq(User::getId, user.getId()));
     }
 
     /**
@@ -96,7 +249,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             if (RegexUtils.isInvalidPassword(user.getPassword())) {
                 throw new InvalidParameterException(ExceptionConstant.INVALID_PASSWORD);
             }
-            user.setPassword(BCryptUtils.hashData(user.getPassword()));
+            user.setPassword(passwordHasher.hash(user.getPassword()));
         }
 
         // 对邮箱进行加密
@@ -105,14 +258,90 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
             if (RegexUtils.isInvalidEmail(user.getEmail())) {
                 throw new InvalidParameterException(ExceptionConstant.INVALID_EMAIL);
             }
-            user.setEmail(AesUtils.encrypt(user.getEmail(), aesProperties.getKey()));
+            user.setEmailIndex(blindIndexer.index(user.getEmail()));
+            if (existsEmailIndex(user.getEmailIndex(), user.getId())) {
+                throw new InvalidParameterException(ExceptionConstant.DUPLICATE_EMAIL);
+            }
+            user.setEmail(aesCipher.encrypt(user.getEmail()));
         }
 
         // 更新用户信息
-        int update = userMapper.updateById(user);
+        int update;
+        try {
+            update = userMapper.updateById(user);
+        } catch (DuplicateKeyException e) {
+            throw translateDuplicateKey(e);
+        }
         if (update <= 0) {
             throw new BaseException(ExceptionConstant.USER_UPDATE_FAILED);
         }
+        userCache.invalidate(user.getId());
+        pageCountCache.invalidate(USER_TABLE);
+        refreshSearchIndex(new LambdaQueryWrapper<>(User.class).eq(User::getId, user.getId()));
+    }
+
+    /**
+     * 并发写入相同邮箱时写入前的查重可能都通过，由唯一索引拒绝后写入的一方，转换为与查重一致的提示
+     *
+     * @param e
+     * @return
+     */
+    private static RuntimeException translateDuplicateKey(DuplicateKeyException e) {
+        String message = e.getMessage();
+        if (message != null && message.toLowerCase(Locale.ROOT).contains(EMAIL_INDEX_NAME)) {
+            return new InvalidParameterException(ExceptionConstant.DUPLICATE_EMAIL);
+        }
+        return e;
+    }
+
+    /**
+     * 更新单个用户的账号状态
+     *
+     * @param id
+     * @param status
+     */
+    @Override
+    public void updateUserStatus(Long id, UserStatusEnum status) {
+        if (updateUserStatus(List.of(id), status) <= 0) {
+            throw new InfoNotFoundException(ExceptionConstant.USER_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 批量更新用户的账号状态，每批使用一条 UPDATE ... WHERE id IN (...) 语句
+     * 禁用时同时删除刷新令牌并吊销已签发的访问令牌，使被禁用的用户立即下线
+     *
+     * @param ids
+     * @param status
+     * @return 更新的用户数量
+     */
+    @Override
+    public int updateUserStatus(Collection<Long> ids, UserStatusEnum status) {
+        if (status == null) {
+            throw new InvalidParameterException(ExceptionConstant.INVALID_STATUS);
+        }
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidParameterException(ExceptionConstant.EMPTY_USER_IDS);
+        }
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty()) {
+            throw new InvalidParameterException(ExceptionConstant.EMPTY_USER_IDS);
+        }
+
+        int updated = 0;
+        for (int from = 0; from < distinctIds.size(); from += STATUS_BATCH_SIZE) {
+            List<Long> batch = distinctIds.subList(from, Math.min(from + STATUS_BATCH_SIZE, distinctIds.size()));
+            updated += userMapper.update(new LambdaUpdateWrapper<User>()
+                    .set(User::getStatus, status)
+                    .in(User::getId, batch));
+            refreshSearchIndex(new LambdaQueryWrapper<>(User.class).in(User::getId, batch));
+        }
+
+        userCache.invalidateAll(distinctIds);
+        if (status == UserStatusEnum.DISABLED) {
+            authService.revokeSessions(distinctIds);
+        }
+        return updated;
     }
 
     /**
@@ -125,12 +354,481 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
     public PageResult<User> listUser(long pageNum, long pageSize) {
         // 分页查询用户列表
         LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        // 列表接口对所有登录用户开放，不查询邮箱
         queryWrapper.select(User::getId, User::getAccountName, User::getRole, User::getStatus, User::getCreateTime)
                 .orderByDesc(User::getCreateTime, User::getAccountName);
 
-        Page<User> userPage = userMapper.selectPage(new Page<>(pageNum, pageSize), queryWrapper);
+        // 总记录数由缓存提供，不再每次执行COUNT查询
+        Page<User> userPage = userMapper.selectPage(new Page<>(pageNum, pageSize, false), queryWrapper);
+        PageCountCache.Count count = countUser();
+
+        return PageResult.<User>builder()
+                .total(count.total())
+                .totalExact(count.exact())
+                .pageNum(pageNum)
+                .pageSize(pageSize)
+                .data(userPage.getRecords())
+                .build();
+    }
+
+    /**
+     * 游标分页查询用户列表，按(create_time, account_name, id)倒序定位，不使用OFFSET
+     *
+     * @param cursor    上一页返回的游标，为空时查询第一页
+     * @param pageSize
+     * @param withTotal 是否统计总记录数
+     * @return
+     */
+    @Override
+    public PageResult<User> listUserByCursor(String cursor, long pageSize, boolean withTotal) {
+        if (pageSize <= 0) {
+            throw new InvalidParameterException("每页大小必须大于0");
+        }
+        PageCursor pageCursor = PageCursor.decode(cursor);
+
+        // 与分页接口一致，不查询邮箱
+        LambdaQueryWrapper<User> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.select(User::getId, User::getAccountName, User::getRole, User::getStatus, User::getCreateTime)
+                .and(pageCursor != null, w -> w.lt(User::getCreateTime, pageCursor.createTime())
+                        .or(w1 -> w1.eq(User::getCreateTime, pageCursor.createTime())
+                                .lt(User::getAccountName, pageCursor.accountName()))
+                        .or(w2 -> w2.eq(User::getCreateTime, pageCursor.createTime())
+                                .eq(User::getAccountName, pageCursor.accountName())
+                                .lt(User::getId, pageCursor.id())))
+                .orderByDesc(User::getCreateTime, User::getAccountName, User::getId)
+                // 多查询一条，用于判断是否还有下一页
+                .last("LIMIT " + (pageSize + 1));
+
+        List<User> records = userMapper.selectList(queryWrapper);
+
+        String nextCursor = null;
+        if (records.size() > pageSize) {
+            records = records.subList(0, (int) pageSize);
+            User last = records.get(records.size() - 1);
+            nextCursor = new PageCursor(last.getCreateTime(), last.getAccountName(), last.getId()).encode();
+        }
+
+        PageCountCache.Count count = withTotal ? countUser() : null;
 
-        return new PageResult<>(userPage.getTotal(), pageNum, pageSize, userPage.getRecords());
+        return PageResult.<User>builder()
+                .total(count == null ? null : count.total())
+                .totalExact(count == null ? null : count.exact())
+                .pageSize(pageSize)
+                .data(records)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 批量导入用户，按批次校验、并行加密密码并批量写入数据库
+     *
+     * @param users
+     * @return 导入结果，包含每一行的失败原因
+     */
+    @Override
+    public UserImportVO importUsers(List<User> users) {
+        if (users.size() > userImportProperties.getMaxRows()) {
+            throw new InvalidParameterException(ExceptionConstant.IMPORT_TOO_MANY_ROWS);
+        }
+        UserImportVO result = new UserImportVO();
+        ImportContext context = new ImportContext();
+        List<ImportRow> chunk = new ArrayList<>(userImportProperties.getBatchSize());
+        for (int i = 0; i < users.size(); i++) {
+            chunk.add(new ImportRow(i + 1, users.get(i), null));
+            if (chunk.size() >= userImportProperties.getBatchSize()) {
+                importChunk(chunk, context, result);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, context, result);
+        result.setTotal(users.size());
+        return result;
     }
 
+    /**
+     * 从CSV流式导入用户，首行为表头，列名为accountName、password、name、email、role、sno、status，
+     * 逐行读取，每读满一批即写入数据库，内存占用与文件大小无关
+     *
+     * @param csv
+     * @return 导入结果，包含每一行的失败原因
+     */
+    @Override
+    public UserImportVO importUsers(InputStream csv) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new InvalidParameterException(ExceptionConstant.IMPORT_INVALID_HEADER);
+        }
+        // 去除UTF-8 BOM
+        if (headerLine.startsWith("\uFEFF")) {
+            headerLine = headerLine.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> headers = CsvUtils.parseLine(headerLine);
+        for (int i = 0; i < headers.size(); i++) {
+            columns.put(headers.get(i).trim(), i);
+        }
+        if (!columns.containsKey("accountName") || !columns.containsKey("password") || !columns.containsKey("name")) {
+            throw new InvalidParameterException(ExceptionConstant.IMPORT_INVALID_HEADER);
+        }
+
+        UserImportVO result = new UserImportVO();
+        ImportContext context = new ImportContext();
+        List<ImportRow> chunk = new ArrayList<>(userImportProperties.getBatchSize());
+        int row = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (++row > userImportProperties.getMaxRows()) {
+                throw new InvalidParameterException(ExceptionConstant.IMPORT_TOO_MANY_ROWS);
+            }
+            chunk.add(parseCsvRow(row, CsvUtils.parseLine(line), columns));
+            if (chunk.size() >= userImportProperties.getBatchSize()) {
+                importChunk(chunk, context, result);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, context, result);
+        result.setTotal(row);
+        return result;
+    }
+
+    /**
+     * 将CSV行转换为用户，格式错误的字段记录为该行的错误
+     */
+    private ImportRow parseCsvRow(int row, List<String> fields, Map<String, Integer> columns) {
+        User user = User.builder()
+                .accountName(csvField(fields, columns, "accountName"))
+                .password(csvField(fields, columns, "password"))
+                .name(csvField(fields, columns, "name"))
+                .email(csvField(fields, columns, "email"))
+                .sno(csvField(fields, columns, "sno"))
+                .build();
+
+        String role = csvField(fields, columns, "role");
+        if (role != null) {
+            user.setRole(Arrays.stream(UserRoleEnum.values())
+                    .filter(r -> r.name().equalsIgnoreCase(role) || String.valueOf(r.getValue()).equals(role))
+                    .findFirst().orElse(null));
+            if (user.getRole() == null) {
+                return new ImportRow(row, user, ExceptionConstant.INVALID_ROLE);
+            }
+        }
+        String status = csvField(fields, columns, "status");
+        if (status != null) {
+            user.setStatus(Arrays.stream(UserStatusEnum.values())
+                    .filter(st -> st.name().equalsIgnoreCase(status) || String.valueOf(st.getValue()).equals(status))
+                    .findFirst().orElse(null));
+            if (user.getStatus() == null) {
+                return new ImportRow(row, user, ExceptionConstant.INVALID_STATUS);
+            }
+        }
+        return new ImportRow(row, user, null);
+    }
+
+    private static String csvField(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * 导入一批用户：校验、查重、并行加密密码、加密邮箱，然后通过批量执行器写入数据库
+     */
+    private void importChunk(List<ImportRow> chunk, ImportContext context, UserImportVO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        // 校验格式，并检查本次导入内部是否重复
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        for (ImportRow importRow : chunk) {
+            User user = importRow.user();
+            String error = importRow.error() != null ? importRow.error() : validateImportUser(user);
+            if (error == null && !context.accountNames.add(user.getAccountName())) {
+                error = ExceptionConstant.DUPLICATE_ACCOUNT_NAME;
+            }
+            if (error == null && user.getSno() != null && !context.snos.add(user.getSno())) {
+                error = ExceptionConstant.DUPLICATE_SNO;
+            }
+            if (error == null && user.getEmail() != null) {
+                user.setEmailIndex(blindIndexer.index(user.getEmail()));
+                if (!context.emailIndexes.add(user.getEmailIndex())) {
+                    error = ExceptionConstant.DUPLICATE_EMAIL;
+                }
+            }
+            if (error != null) {
+                addImportError(result, importRow, error);
+            } else {
+                candidates.add(importRow);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 检查数据库中是否已存在
+        candidates = excludeExisting(candidates, result);
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 并行加密密码，批量加密邮箱
+        List<User> users = candidates.stream().map(ImportRow::user).toList();
+        users.forEach(user -> {
+            if (user.getRole() == null) {
+                user.setRole(UserRoleEnum.USER);
+            }
+            if (user.getStatus() == null) {
+                user.setStatus(UserStatusEnum.DISABLED);
+            }
+        });
+        passwordHasher.hashAll(users, User::getPassword, User::setPassword);
+        aesCipher.encryptAll(users, User::getEmail, User::setEmail);
+
+        // 批量写入
+        try {
+            new MybatisBatch<>(sqlSessionFactory, users, userImportProperties.getBatchSize())
+                    .execute(new MybatisBatch.Method<User>(UserMapper.class).get("insertForImport"));
+            result.setSuccessCount(result.getSuccessCount() + users.size());
+            pageCountCache.invalidate(USER_TABLE);
+            // 批量插入不回填自增id，按账户名读取新用户
+            refreshSearchIndex(new LambdaQueryWrapper<>(User.class)
+                    .in(User::getAccountName, users.stream().map(User::getAccountName).toList()));
+        } catch (Exception e) {
+            log.error("批量导入用户写入失败: {}", e.getMessage(), e);
+            candidates.forEach(importRow -> addImportError(result, importRow, ExceptionConstant.USER_SAVE_FAILED));
+        }
+    }
+
+    /**
+     * 流式导出全部用户，逐行从数据库读取、解密邮箱后直接写入输出流，不在内存中保留整表数据
+     *
+     * @param outputStream
+     * @param format       csv或ndjson
+     */
+    @Override
+    public void exportUsers(OutputStream outputStream, String format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        boolean csv = "csv".equalsIgnoreCase(format);
+        SequenceWriter jsonWriter = csv ? null
+                : objectMapper.writer().withRootValueSeparator("\n").writeValues(writer);
+        if (csv) {
+            writer.write(EXPORT_CSV_HEADER);
+            writer.write('\n');
+        }
+
+        int[] rows = {0};
+        try {
+            userMapper.streamForExport(context -> {
+                User user = context.getResultObject();
+                if (user.getEmail() != null) {
+                    user.setEmail(aesCipher.decrypt(user.getEmail()));
+                }
+                try {
+                    if (csv) {
+                        writeCsvRow(writer, user);
+                    } else {
+                        jsonWriter.write(user);
+                    }
+                    // 定期刷新，使数据以分块方式持续发送给客户端
+                    if (++rows[0] % EXPORT_FLUSH_ROWS == 0) {
+                        if (csv) {
+                            writer.flush();
+                        } else {
+                            jsonWriter.flush();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (jsonWriter != null) {
+            jsonWriter.flush();
+            if (rows[0] > 0) {
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+        log.info("导出用户完成，行数：{}", rows[0]);
+    }
+
+    private static void writeCsvRow(Writer writer, User user) throws IOException {
+        writer.write(String.valueOf(user.getId()));
+        writer.write(',');
+        writer.write(CsvUtils.escape(user.getAccountName()));
+        writer.write(',');
+        writer.write(CsvUtils.escape(user.getName()));
+        writer.write(',');
+        writer.write(CsvUtils.escape(user.getEmail()));
+        writer.write(',');
+        writer.write(user.getRole() == null ? "" : String.valueOf(user.getRole().getValue()));
+        writer.write(',');
+        writer.write(CsvUtils.escape(user.getSno()));
+        writer.write(',');
+        writer.write(user.getStatus() == null ? "" : String.valueOf(user.getStatus().getValue()));
+        writer.write(',');
+        writer.write(user.getCreateTime() == null ? "" : user.getCreateTime().toString());
+        writer.write('\n');
+    }
+
+    /**
+     * 回填邮箱盲索引，按id顺序分批读取（WHERE id > 上一批最大id），解密后重新计算，只更新与当前密钥计算结果不一致的行，
+     * 也可用于更换盲索引密钥后的重建
+     *
+     * @return 更新的行数
+     */
+    @Override
+    public int backfillEmailIndex() {
+        int batchSize = aesProperties.getIndexBackfillBatchSize();
+        long lastId = 0;
+        int updated = 0;
+        while (true) {
+            List<User> batch = userMapper.selectList(new LambdaQueryWrapper<>(User.class)
+                    .select(User::getId, User::getEmail, User::getEmailIndex)
+                    .gt(User::getId, lastId)
+                    .isNotNull(User::getEmail)
+                    .orderByAsc(User::getId)
+                    .last("LIMIT " + batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+
+            aesCipher.decryptAll(batch, User::getEmail, User::setEmail);
+            List<User> changed = new ArrayList<>();
+            for (User user : batch) {
+                String emailIndex = blindIndexer.index(user.getEmail());
+                if (!emailIndex.equals(user.getEmailIndex())) {
+                    changed.add(User.builder().id(user.getId()).emailIndex(emailIndex).build());
+                }
+            }
+            if (!changed.isEmpty()) {
+                new MybatisBatch<>(sqlSessionFactory, changed, batchSize)
+                        .execute(new MybatisBatch.Method<User>(UserMapper.class).get("updateEmailIndex"));
+                updated += changed.size();
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        log.info("回填邮箱盲索引完成，更新行数：{}", updated);
+        return updated;
+    }
+
+    /**
+     * 校验导入的用户信息
+     *
+     * @param user
+     * @return 错误信息，校验通过时返回null
+     */
+    private static String validateImportUser(User user) {
+        if (user == null) {
+            return ExceptionConstant.INVALID_ACCOUNT_NAME;
+        }
+        if (user.getAccountName() == null || user.getAccountName().isBlank() || user.getAccountName().length() > 11) {
+            return ExceptionConstant.INVALID_ACCOUNT_NAME;
+        }
+        if (user.getName() == null || user.getName().isBlank() || user.getName().length() > 11) {
+            return ExceptionConstant.INVALID_NAME;
+        }
+        if (RegexUtils.isInvalidPassword(user.getPassword())) {
+            return ExceptionConstant.INVALID_PASSWORD;
+        }
+        if (user.getEmail() != null && RegexUtils.isInvalidEmail(user.getEmail())) {
+            return ExceptionConstant.INVALID_EMAIL;
+        }
+        if (user.getSno() != null && user.getSno().length() > 11) {
+            return ExceptionConstant.INVALID_SNO;
+        }
+        return null;
+    }
+
+    /**
+     * 一次查询排除账户名、学号或邮箱已存在于数据库中的行
+     */
+    private List<ImportRow> excludeExisting(List<ImportRow> candidates, UserImportVO result) {
+        List<String> accountNames = candidates.stream().map(r -> r.user().getAccountName()).toList();
+        List<String> snos = candidates.stream().map(r -> r.user().getSno()).filter(Objects::nonNull).toList();
+        List<String> emailIndexes = candidates.stream().map(r -> r.user().getEmailIndex())
+                .filter(Objects::nonNull).toList();
+        List<User> existing = userMapper.selectList(new LambdaQueryWrapper<>(User.class)
+                .select(User::getAccountName, User::getSno, User::getEmailIndex)
+                .in(User::getAccountName, accountNames)
+                .or(!snos.isEmpty(), w -> w.in(User::getSno, snos))
+                .or(!emailIndexes.isEmpty(), w -> w.in(User::getEmailIndex, emailIndexes)));
+        if (existing.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> existingAccountNames = new HashSet<>();
+        Set<String> existingSnos = new HashSet<>();
+        Set<String> existingEmailIndexes = new HashSet<>();
+        existing.forEach(user -> {
+            existingAccountNames.add(user.getAccountName());
+            if (user.getSno() != null) {
+                existingSnos.add(user.getSno());
+            }
+            if (user.getEmailIndex() != null) {
+                existingEmailIndexes.add(user.getEmailIndex());
+            }
+        });
+        List<ImportRow> remaining = new ArrayList<>(candidates.size());
+        for (ImportRow importRow : candidates) {
+            if (existingAccountNames.contains(importRow.user().getAccountName())) {
+                addImportError(result, importRow, ExceptionConstant.DUPLICATE_ACCOUNT_NAME);
+            } else if (importRow.user().getSno() != null && existingSnos.contains(importRow.user().getSno())) {
+                addImportError(result, importRow, ExceptionConstant.DUPLICATE_SNO);
+            } else if (importRow.user().getEmailIndex() != null
+                    && existingEmailIndexes.contains(importRow.user().getEmailIndex())) {
+                addImportError(result, importRow, ExceptionConstant.DUPLICATE_EMAIL);
+            } else {
+                remaining.add(importRow);
+            }
+        }
+        return remaining;
+    }
+
+    private static void addImportError(UserImportVO result, ImportRow importRow, String message) {
+        String accountName = importRow.user() == null ? null : importRow.user().getAccountName();
+        result.getErrors().add(new UserImportVO.RowError(importRow.row(), accountName, message));
+    }
+
+    /**
+     * 待导入的行
+     *
+     * @param row   行号，从1开始
+     * @param user  用户信息
+     * @param error 解析阶段的错误信息
+     */
+    private record ImportRow(int row, User user, String error) {
+    }
+
+    /**
+     * 单次导入中已出现的账户名、学号和邮箱盲索引，用于检查导入内容内部的重复
+     */
+    private static class ImportContext {
+        private final Set<String> accountNames = new HashSet<>();
+        private final Set<String> snos = new HashSet<>();
+        private final Set<String> emailIndexes = new HashSet<>();
+    }
+
+    /**
+     * 统计用户总数
+     *
+     * @return
+     */
+    private PageCountCache.Count countUser() {
+        return pageCountCache.getTotal(USER_TABLE, "all", () -> userMapper.selectCount(null),
+                userMapper::estimateCount);
+    }
 }
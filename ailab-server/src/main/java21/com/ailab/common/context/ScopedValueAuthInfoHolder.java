@@ -0,0 +1,52 @@
+package com.ailab.common.context;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 基于ScopedValue存储登录信息，用于虚拟线程模式
+ * 每个请求在进入过滤器时绑定一个登录信息容器，TokenInterceptor解析令牌后写入该容器，请求结束后绑定自动解除，
+ * 不需要为每个虚拟线程创建ThreadLocal
+ */
+public class ScopedValueAuthInfoHolder implements AuthInfoHolder {
+
+    private static final ScopedValue<Carrier> CARRIER = ScopedValue.newInstance();
+
+    /**
+     * 在绑定了登录信息容器的作用域内执行
+     *
+     * @param task
+     * @param <T>
+     * @return
+     * @throws Exception
+     */
+    public static <T> T callInScope(Callable<T> task) throws Exception {
+        return ScopedValue.where(CARRIER, new Carrier()).call(task);
+    }
+
+    @Override
+    public AuthLoginInfo get() {
+        return CARRIER.isBound() ? CARRIER.get().loginInfo : null;
+    }
+
+    @Override
+    public void set(AuthLoginInfo authLoginInfo) {
+        if (!CARRIER.isBound()) {
+            throw new IllegalStateException("当前请求未绑定登录信息作用域");
+        }
+        CARRIER.get().loginInfo = authLoginInfo;
+    }
+
+    @Override
+    public void clear() {
+        if (CARRIER.isBound()) {
+            CARRIER.get().loginInfo = null;
+        }
+    }
+
+    /**
+     * 登录信息容器，只在单个请求内使用
+     */
+    private static class Carrier {
+        private AuthLoginInfo loginInfo;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ailab.config;
+
+import com.ailab.common.context.AuthInfoContext;
+import com.ailab.common.context.ScopedValueAuthInfoHolder;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 虚拟线程模式下使用ScopedValue传递登录信息，仅在java21构建配置中编译
+ * 开启方式：ailab.auth-context=scoped-value（virtual配置文件中已开启）
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "ailab.auth-context", havingValue = "scoped-value")
+public class ScopedValueAuthConfig {
+
+    public ScopedValueAuthConfig() {
+        AuthInfoContext.setHolder(new ScopedValueAuthInfoHolder());
+        log.info("登录信息使用ScopedValue传递");
+    }
+
+    /**
+     * 为每个请求绑定登录信息作用域，异步分派和错误分派同样需要绑定
+     *
+     * @return
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> authScopeFilter() {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                try {
+                    ScopedValueAuthInfoHolder.callInScope(() -> {
+                        filterChain.doFilter(request, response);
+                        return null;
+                    });
+                } catch (IOException | ServletException | RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new ServletException(e);
+                }
+            }
+
+            @Override
+            protected boolean shouldNotFilterAsyncDispatch() {
+                return false;
+            }
+
+            @Override
+            protected boolean shouldNotFilterErrorDispatch() {
+                return false;
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,77 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.properties.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenRevocationListTests {
+
+	private TokenRevocationList newList() {
+		JwtProperties jwtProperties = new JwtProperties();
+		jwtProperties.setAccessTokenExpiration(7200000L);
+		return new TokenRevocationList(new StringRedisTemplate(), new LettuceConnectionFactory(), jwtProperties, new SimpleMeterRegistry());
+	}
+
+	private void notify(TokenRevocationList list, long userId, long revokedBefore) {
+		byte[] body = (userId + ":" + revokedBefore).getBytes(StandardCharsets.UTF_8);
+		list.onMessage(new DefaultMessage(TokenRevocationList.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+	}
+
+	@Test
+	public void testRevokedBefore() {
+		TokenRevocationList list = newList();
+		long now = System.currentTimeMillis();
+		notify(list, 1L, now);
+
+		assertTrue(list.isRevoked(1L, now - 1000));
+		assertTrue(list.isRevoked(1L, now));
+		assertFalse(list.isRevoked(1L, now + 1000));
+		assertFalse(list.isRevoked(2L, now - 1000));
+
+		// 较早的通知不会覆盖较晚的吊销时间
+		notify(list, 1L, now - 5000);
+		assertTrue(list.isRevoked(1L, now - 1000));
+	}
+
+	@Test
+	public void testBatchMessage() {
+		TokenRevocationList list = newList();
+		long now = System.currentTimeMillis();
+		byte[] body = ("1:" + now + ",2:" + now + ",3:" + now).getBytes(StandardCharsets.UTF_8);
+		list.onMessage(new DefaultMessage(TokenRevocationList.CHANNEL.getBytes(StandardCharsets.UTF_8), body), null);
+
+		assertTrue(list.isRevoked(1L, now));
+		assertTrue(list.isRevoked(2L, now));
+		assertTrue(list.isRevoked(3L, now));
+		assertFalse(list.isRevoked(4L, now));
+	}
+
+	@Test
+	public void testExpiredRevocationIgnored() {
+		TokenRevocationList list = newList();
+		long now = System.currentTimeMillis();
+		notify(list, 1L, now - 7300000L);
+		assertFalse(list.isRevoked(1L, now - 7400000L));
+	}
+
+	@Test
+	public void testManyUsers() {
+		TokenRevocationList list = newList();
+		long now = System.currentTimeMillis();
+		for (long userId = 1; userId <= 2000; userId++) {
+			notify(list, userId, now + userId);
+		}
+		for (long userId = 1; userId <= 2000; userId++) {
+			assertTrue(list.isRevoked(userId, now + userId));
+			assertFalse(list.isRevoked(userId, now + userId + 1));
+		}
+		assertFalse(list.isRevoked(2001L, now));
+	}
+}
@@ -0,0 +1,91 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.component.AesCipher;
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.UserCacheProperties;
+import com.ailab.pojo.domain.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fppt.jedismock.RedisServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserCacheTests {
+
+	private static final String REDIS_KEY = RedisEnum.USER_INFO.getKey() + 1;
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static StringRedisTemplate redisTemplate;
+
+	private TaskScheduler taskScheduler;
+	private UserCache userCache;
+
+	@BeforeAll
+	public static void startRedis() throws IOException {
+		redisServer = RedisServer.newRedisServer(0).start();
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	public static void stopRedis() throws IOException {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@BeforeEach
+	public void setUp() {
+		redisTemplate.delete(REDIS_KEY);
+		taskScheduler = mock(TaskScheduler.class);
+		userCache = new UserCache(new UserCacheProperties(), redisTemplate, new ObjectMapper(), mock(AesCipher.class),
+				taskScheduler, new SimpleMeterRegistry());
+	}
+
+	private static User user(String name) {
+		return User.builder().id(1L).accountName("alice").name(name).build();
+	}
+
+	@Test
+	public void testDelayedDeleteRemovesStaleLoad() {
+		userCache.invalidate(1L);
+		ArgumentCaptor<Runnable> secondDelete = ArgumentCaptor.forClass(Runnable.class);
+		verify(taskScheduler).schedule(secondDelete.capture(), any(Instant.class));
+
+		// 更新前已读取数据库的加载在第一次删除之后才写入缓存
+		assertEquals("旧名称", userCache.get(1L, id -> user("旧名称")).getName());
+		assertTrue(redisTemplate.hasKey(REDIS_KEY));
+
+		secondDelete.getValue().run();
+		assertFalse(redisTemplate.hasKey(REDIS_KEY));
+		assertEquals("新名称", userCache.get(1L, id -> user("新名称")).getName());
+	}
+
+	@Test
+	public void testInvalidateAll() {
+		userCache.get(1L, id -> user("旧名称"));
+		userCache.invalidateAll(List.of(1L));
+		assertFalse(redisTemplate.hasKey(REDIS_KEY));
+		verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+
+		assertEquals("新名称", userCache.get(1L, id -> user("新名称")).getName());
+	}
+}
@@ -0,0 +1,118 @@
+package com.ailab.common.cache;
+
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.enums.UserStatusEnum;
+import com.ailab.common.properties.UserSearchProperties;
+import com.ailab.mapper.UserMapper;
+import com.ailab.pojo.domain.User;
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserSearchIndexTests {
+
+	static {
+		// 未启动Spring时，Lambda查询条件需要先注册实体的表信息
+		TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), User.class);
+	}
+
+	private static User user(long id, String accountName, String name, String sno) {
+		return User.builder().id(id).accountName(accountName).name(name).sno(sno)
+				.role(UserRoleEnum.USER).status(UserStatusEnum.ENABLED).build();
+	}
+
+	private UserSearchIndex newIndex(List<User> users) {
+		UserMapper userMapper = mock(UserMapper.class);
+		when(userMapper.selectList(any())).thenReturn(users);
+		UserSearchIndex index = new UserSearchIndex(userMapper, new UserSearchProperties(), mock(TaskScheduler.class),
+				new SimpleMeterRegistry());
+		index.rebuild();
+		return index;
+	}
+
+	private static List<Long> ids(List<User> users) {
+		return users.stream().map(User::getId).toList();
+	}
+
+	@Test
+	public void testRanking() {
+		UserSearchIndex index = newIndex(List.of(
+				user(1, "zhang", "张三", "20250001"),
+				user(2, "zhangsan", "张三丰", "20250002"),
+				user(3, "lizhang", "李四", "20250003"),
+				user(4, "wangwu", "王五", "20240004")));
+		assertTrue(index.isReady());
+
+		// 完全匹配、前缀匹配、子串匹配依次排列
+		assertEquals(List.of(1L, 2L, 3L), ids(index.search("Zhang", 10)));
+		assertEquals(List.of(1L, 2L), ids(index.search("张三", 10)));
+		assertEquals(List.of(1L, 2L, 3L), ids(index.search("2025", 10)));
+		assertEquals(List.of(4L), ids(index.search("0004", 10)));
+		assertEquals(List.of(1L, 2L), ids(index.search("zhang", 2)));
+		// 单个字符扫描全部用户
+		assertEquals(List.of(1L, 2L), ids(index.search("张", 10)));
+		assertTrue(index.search("zhao", 10).isEmpty());
+	}
+
+	@Test
+	public void testIncrementalUpdate() {
+		UserSearchIndex index = newIndex(List.of(user(1, "zhang", "张三", "20250001")));
+
+		index.putAll(List.of(user(1, "zhao", "赵六", "20250001"), user(2, "zhangsan", "张三丰", null)));
+		assertEquals(List.of(2L), ids(index.search("zhang", 10)));
+		assertEquals(List.of(1L), ids(index.search("赵六", 10)));
+		assertEquals("zhao", index.search("zhao", 10).get(0).getAccountName());
+	}
+
+	@Test
+	public void testRebuildFailure() {
+		UserMapper userMapper = mock(UserMapper.class);
+		when(userMapper.selectList(any())).thenThrow(new IllegalStateException("数据库不可用"));
+		UserSearchIndex index = new UserSearchIndex(userMapper, new UserSearchProperties(), mock(TaskScheduler.class),
+				new SimpleMeterRegistry());
+		index.rebuild();
+		assertFalse(index.isReady());
+	}
+
+	@Test
+	public void testCompactOnScheduler() {
+		UserMapper userMapper = mock(UserMapper.class);
+		when(userMapper.selectList(any())).thenReturn(List.of(user(1, "zhang", "张三", "20250001")));
+		TaskScheduler taskScheduler = mock(TaskScheduler.class);
+		UserSearchProperties properties = new UserSearchProperties();
+		properties.setCompactThreshold(2);
+		UserSearchIndex index = new UserSearchIndex(userMapper, properties, taskScheduler, new SimpleMeterRegistry());
+		index.rebuild();
+
+		List<User> users = new ArrayList<>();
+		for (int i = 2; i <= 5; i++) {
+			users.add(user(i, "user" + i, "用户" + i, null));
+			index.putAll(List.of(users.get(users.size() - 1)));
+		}
+		// 超过阈值后只提交一次合并任务，写入线程不执行合并
+		ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+		verify(taskScheduler, times(1)).schedule(task.capture(), any(Instant.class));
+		assertEquals(List.of(2L, 3L, 4L, 5L), ids(index.search("user", 10)));
+
+		task.getValue().run();
+		assertEquals(List.of(2L, 3L, 4L, 5L), ids(index.search("user", 10)));
+		assertEquals(List.of(1L), ids(index.search("zhang", 10)));
+
+		// 合并完成后再次超过阈值时重新提交
+		index.putAll(List.of(user(6, "user6", "用户6", null), user(7, "user7", "用户7", null),
+				user(8, "user8", "用户8", null)));
+		verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+	}
+}
@@ -0,0 +1,28 @@
+package com.ailab.common.component;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlindIndexerTests {
+
+	private final BlindIndexer indexer = new BlindIndexer("PDEqCXYe6z9ZCH0I1oIazbKqZkCPtjUlUhapwBLlr90=");
+
+	@Test
+	public void testDeterministic() {
+		String index = indexer.index("student2025001@example.com");
+		assertEquals(43, index.length());
+		assertEquals(index, indexer.index("student2025001@example.com"));
+		// 不区分大小写，忽略首尾空白
+		assertEquals(index, indexer.index(" Student2025001@Example.com "));
+		assertNotEquals(index, indexer.index("student2025002@example.com"));
+		assertNull(indexer.index(null));
+	}
+
+	@Test
+	public void testKeyed() {
+		BlindIndexer other = new BlindIndexer("RHVOP9jOPW4Hl+twdFvg1v+6HKYr99Gs2V8MAwFx35k=");
+		assertNotEquals(indexer.index("student2025001@example.com"), other.index("student2025001@example.com"));
+		assertThrows(IllegalArgumentException.class, () -> new BlindIndexer("c2hvcnQ="));
+	}
+}
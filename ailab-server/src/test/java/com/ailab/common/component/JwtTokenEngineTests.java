@@ -0,0 +1,60 @@
+package com.ailab.common.component;
+
+import com.ailab.common.constant.AuthConstant;
+import com.ailab.common.context.AuthLoginInfo;
+import com.ailab.common.enums.UserRoleEnum;
+import com.ailab.common.exception.BaseException;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenEngineTests {
+
+	private final JwtTokenEngine engine = new JwtTokenEngine("mySecretKey1234567890ahduweweyewifhuwh");
+
+	@Test
+	public void testCreateAndParse() {
+		AuthLoginInfo loginInfo = AuthLoginInfo.builder()
+				.id(1L)
+				.accountName("testUser")
+				.role(UserRoleEnum.ADMIN)
+				.build();
+		String token = engine.createToken(10000L, Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, loginInfo));
+
+		Claims claims = engine.parseToken(token);
+		assertEquals(loginInfo, engine.getLoginInfo(claims, AuthConstant.JWT_CLAIMS_USER_INFO));
+		assertEquals(loginInfo, JwtTokenEngine.getObjectFromClaims(claims, AuthConstant.JWT_CLAIMS_USER_INFO,
+				AuthLoginInfo.class));
+	}
+
+	@Test
+	public void testIssuedAtMillis() {
+		long before = System.currentTimeMillis();
+		Claims claims = engine.parseToken(engine.createToken(10000L, Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, Map.of("id", 1))));
+		long after = System.currentTimeMillis();
+
+		long issuedAt = engine.getIssuedAtMillis(claims);
+		assertTrue(issuedAt >= before && issuedAt <= after);
+		assertEquals(issuedAt / 1000 * 1000, claims.getIssuedAt().getTime());
+
+		// 不含毫秒签发时间的令牌使用标准签发时间
+		claims.remove(AuthConstant.JWT_CLAIMS_ISSUED_AT_MILLIS);
+		assertEquals(claims.getIssuedAt().getTime(), engine.getIssuedAtMillis(claims));
+	}
+
+	@Test
+	public void testParseWithOtherKey() {
+		String token = engine.createToken(10000L, Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, Map.of("id", 1)));
+		JwtTokenEngine other = new JwtTokenEngine("otherSecretKey1234567890ahduweweyewifhu");
+		assertThrows(BaseException.class, () -> other.parseToken(token));
+	}
+
+	@Test
+	public void testParseExpired() {
+		String token = engine.createToken(-1000L, Map.of(AuthConstant.JWT_CLAIMS_USER_INFO, Map.of("id", 1)));
+		assertThrows(BaseException.class, () -> engine.parseToken(token));
+	}
+}
@@ -0,0 +1,214 @@
+package com.ailab.common.component;
+
+import com.ailab.common.exception.TooManyRequestsException;
+import com.ailab.common.properties.LoginRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong();
+	private SimpleMeterRegistry meterRegistry;
+	private LoginRateLimitProperties properties;
+
+	@BeforeEach
+	public void setUp() {
+		clock.set(TimeUnit.SECONDS.toNanos(1000));
+		meterRegistry = new SimpleMeterRegistry();
+		properties = new LoginRateLimitProperties();
+		properties.setAccountCapacity(3);
+		properties.setAccountRefillInterval(10000);
+		properties.setIpCapacity(5);
+		properties.setIpRefillInterval(1000);
+		properties.setBackoffThreshold(2);
+		properties.setBackoffBase(1000);
+		properties.setBackoffMax(8000);
+	}
+
+	private LoginRateLimiter newLimiter() {
+		return new LoginRateLimiter(properties, new StringRedisTemplate(), meterRegistry, clock::get);
+	}
+
+	private void advance(long millis) {
+		clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+	}
+
+	private double rejected(String reason) {
+		return meterRegistry.get("ailab.login.rejected").tag("reason", reason).counter().count();
+	}
+
+	@Test
+	public void testAccountBucket() {
+		LoginRateLimiter limiter = newLimiter();
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+		}
+		// 改变大小写不能绕过限流
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire(" ALICE ", "10.0.0.1"));
+		assertEquals(1, rejected("account"));
+
+		// 同一账户在其他地址、其他账户在同一地址不受影响，令牌按间隔恢复
+		limiter.acquire("alice", "10.0.0.2");
+		limiter.acquire("bob", "10.0.0.1");
+		advance(10000);
+		limiter.acquire("alice", "10.0.0.1");
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+	}
+
+	@Test
+	public void testIpBucket() {
+		LoginRateLimiter limiter = newLimiter();
+		for (int i = 0; i < 5; i++) {
+			limiter.acquire("user" + i, "10.0.0.1");
+			limiter.onFailure("user" + i, "10.0.0.1");
+		}
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("user5", "10.0.0.1"));
+		assertEquals(1, rejected("ip"));
+
+		limiter.acquire("user5", "10.0.0.2");
+		advance(1000);
+		limiter.acquire("user6", "10.0.0.1");
+	}
+
+	@Test
+	public void testIpBucketIgnoresSuccess() {
+		LoginRateLimiter limiter = newLimiter();
+		// 共享同一地址的大量用户正常登录不消耗地址的令牌
+		for (int i = 0; i < 100; i++) {
+			limiter.acquire("user" + i, "10.0.0.1");
+			limiter.onSuccess("user" + i, "10.0.0.1");
+		}
+		assertEquals(0, rejected("ip"));
+	}
+
+	@Test
+	public void testRelease() {
+		LoginRateLimiter limiter = newLimiter();
+		// 服务端繁忙未校验密码的请求退还令牌，不计入尝试次数
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+			limiter.release("alice", "10.0.0.1");
+		}
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+		}
+		limiter.release("alice", "10.0.0.1");
+		limiter.release("alice", "10.0.0.1");
+		limiter.release("alice", "10.0.0.1");
+		limiter.release("alice", "10.0.0.1");
+		// 退还不超过桶容量
+		for (int i = 0; i < 3; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+		}
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+	}
+
+	@Test
+	public void testBackoffDelay() {
+		LoginRateLimiter limiter = newLimiter();
+		assertEquals(0, limiter.backoffDelay(1));
+		assertEquals(1000, limiter.backoffDelay(2));
+		assertEquals(2000, limiter.backoffDelay(3));
+		assertEquals(4000, limiter.backoffDelay(4));
+		assertEquals(8000, limiter.backoffDelay(5));
+		assertEquals(8000, limiter.backoffDelay(100));
+	}
+
+	@Test
+	public void testBackoffAfterFailures() {
+		properties.setAccountCapacity(100);
+		LoginRateLimiter limiter = newLimiter();
+		limiter.acquire("alice", "10.0.0.1");
+		limiter.onFailure("alice", "10.0.0.1");
+		limiter.acquire("alice", "10.0.0.1");
+		limiter.onFailure("alice", "10.0.0.1");
+
+		// 第二次失败后退避1秒
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+		assertEquals(1, rejected("backoff"));
+		advance(1000);
+		limiter.acquire("alice", "10.0.0.1");
+		limiter.onFailure("alice", "10.0.0.1");
+
+		// 第三次失败后退避翻倍
+		advance(1000);
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+		advance(1000);
+		limiter.acquire("alice", "10.0.0.1");
+
+		// 登录成功后清零
+		limiter.onSuccess("alice", "10.0.0.1");
+		limiter.acquire("alice", "10.0.0.1");
+		limiter.onFailure("alice", "10.0.0.1");
+		limiter.acquire("alice", "10.0.0.1");
+	}
+
+	@Test
+	public void testBackoffLimitedToFailingAddress() {
+		properties.setAccountCapacity(100);
+		properties.setIpCapacity(100);
+		LoginRateLimiter limiter = newLimiter();
+		for (int i = 0; i < 10; i++) {
+			advance(10000);
+			limiter.acquire("alice", "10.0.0.1");
+			limiter.onFailure("alice", "10.0.0.1");
+		}
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+
+		// 其他地址上的账户所有者仍然可以登录
+		limiter.acquire("alice", "10.0.0.2");
+
+		// 失败次数按账户累计，其他地址一旦失败即按累计次数退避
+		limiter.onFailure("alice", "10.0.0.3");
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.3"));
+		advance(7999);
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.3"));
+		advance(1);
+		limiter.acquire("alice", "10.0.0.3");
+	}
+
+	@Test
+	public void testBackoffNotEvicted() {
+		properties.setMaximumSize(64);
+		properties.setIpCapacity(100000);
+		properties.setBackoffThreshold(1);
+		LoginRateLimiter limiter = newLimiter();
+		limiter.acquire("alice", "10.0.0.1");
+		limiter.onFailure("alice", "10.0.0.1");
+
+		// 大量新账户写满限流表后，退避中的键仍然保留
+		for (int i = 0; i < 10000; i++) {
+			limiter.acquire("user" + i, "10.0.0.1");
+		}
+		assertThrows(TooManyRequestsException.class, () -> limiter.acquire("alice", "10.0.0.1"));
+	}
+
+	@Test
+	public void testDisabled() {
+		properties.setEnabled(false);
+		LoginRateLimiter limiter = newLimiter();
+		for (int i = 0; i < 10; i++) {
+			limiter.acquire("alice", "10.0.0.1");
+			limiter.onFailure("alice", "10.0.0.1");
+		}
+		assertEquals(0, rejected("account") + rejected("ip") + rejected("backoff"));
+	}
+
+	@Test
+	public void testBoundedSize() {
+		properties.setMaximumSize(640);
+		properties.setIpCapacity(100000);
+		LoginRateLimiter limiter = newLimiter();
+		for (int i = 0; i < 10000; i++) {
+			limiter.acquire("user" + i, "10.0.0.1");
+		}
+		assertTrue(meterRegistry.get("ailab.login.rate-limit.size").tag("type", "pair").gauge().value() <= 640);
+	}
+}
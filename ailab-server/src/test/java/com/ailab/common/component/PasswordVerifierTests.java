@@ -0,0 +1,99 @@
+package com.ailab.common.component;
+
+import com.ailab.common.exception.TooManyRequestsException;
+import com.ailab.common.properties.LoginProperties;
+import com.ailab.common.util.BCryptUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordVerifierTests {
+
+	private final CountDownLatch release = new CountDownLatch(1);
+	private SimpleMeterRegistry meterRegistry;
+	private LoginProperties properties;
+	private PasswordVerifier verifier;
+
+	@BeforeEach
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		properties = new LoginProperties();
+		properties.setVerifyThreads(1);
+		properties.setVerifyQueueCapacity(64);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		release.countDown();
+		verifier.shutdown();
+	}
+
+	private double count(String name) {
+		return meterRegistry.get(name).counter().count();
+	}
+
+	/**
+	 * 占用校验线程，并在等待队列中放入指定数量的任务
+	 */
+	private void occupy(int queued) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		verifier.rehashAsync(() -> {
+			started.countDown();
+			awaitRelease();
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < queued; i++) {
+			verifier.rehashAsync(this::awaitRelease);
+		}
+	}
+
+	private void awaitRelease() {
+		try {
+			release.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Test
+	public void testVerify() {
+		verifier = new PasswordVerifier(properties, meterRegistry);
+		String hashed = BCryptUtils.hashData("password", 4);
+		assertTrue(verifier.verify("password", hashed));
+		assertFalse(verifier.verify("wrong", hashed));
+	}
+
+	@Test
+	public void testRejectWhenExpectedWaitExceedsTimeout() throws InterruptedException {
+		properties.setVerifyTimeout(1000);
+		verifier = new PasswordVerifier(properties, meterRegistry);
+		verifier.recordLatency(TimeUnit.MILLISECONDS.toNanos(300));
+		occupy(2);
+
+		// 前面还有3个任务，预计1200毫秒后才能完成，超过等待时限，提交前直接拒绝
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(1200), verifier.expectedWaitNanos());
+		long start = System.nanoTime();
+		assertThrows(TooManyRequestsException.class, () -> verifier.verify("password", "hashed"));
+		assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+		assertEquals(1, count("ailab.login.verify.rejected"));
+		assertEquals(0, count("ailab.login.verify.timeout"));
+	}
+
+	@Test
+	public void testTimeout() throws InterruptedException {
+		properties.setVerifyTimeout(100);
+		verifier = new PasswordVerifier(properties, meterRegistry);
+		occupy(0);
+
+		// 尚无耗时样本时不做估算，等待超时后单独计数
+		assertThrows(TooManyRequestsException.class, () -> verifier.verify("password", "hashed"));
+		assertEquals(0, count("ailab.login.verify.rejected"));
+		assertEquals(1, count("ailab.login.verify.timeout"));
+	}
+}
@@ -0,0 +1,148 @@
+package com.ailab.common.component;
+
+import com.ailab.common.component.RefreshTokenStore.RotationResult;
+import com.ailab.common.enums.RedisEnum;
+import com.ailab.common.properties.RefreshTokenProperties;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用进程内Redis验证轮换模式下会话脚本的行为
+ */
+class RefreshTokenStoreTests {
+
+	private static final long USER_ID = 1L;
+	private static final String SESSION_KEY = RedisEnum.USER_REFRESH_SESSION.getKey() + USER_ID;
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static ReactiveStringRedisTemplate redisTemplate;
+
+	private RefreshTokenProperties properties;
+	private RefreshTokenStore store;
+
+	@BeforeAll
+	public static void startRedis() throws IOException {
+		redisServer = RedisServer.newRedisServer(0).start();
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+		connectionFactory.afterPropertiesSet();
+		connectionFactory.start();
+		redisTemplate = new ReactiveStringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	public static void stopRedis() throws IOException {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@BeforeEach
+	public void setUp() {
+		redisTemplate.delete(SESSION_KEY).block();
+		properties = new RefreshTokenProperties();
+		properties.setRotation(true);
+		properties.setMaxSessions(2);
+		properties.setReuseGrace(10000);
+		store = new RefreshTokenStore(redisTemplate, properties);
+	}
+
+	private Map<Object, Object> sessions() {
+		return redisTemplate.opsForHash().entries(SESSION_KEY)
+				.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+				.block();
+	}
+
+	private void putSession(String familyId, String digest, long expireAt) {
+		redisTemplate.opsForHash().put(SESSION_KEY, familyId, digest + ":" + expireAt).block();
+	}
+
+	@Test
+	public void testRotate() {
+		assertTrue(store.addSession(USER_ID, "f1", "token-1"));
+		String value = (String) sessions().get("f1");
+		assertTrue(value.startsWith(RefreshTokenStore.digest("token-1") + ":"));
+		assertFalse(value.contains("token-1"), "会话中不能保存令牌原文");
+
+		assertEquals(RotationResult.ROTATED, store.rotateSession(USER_ID, "f1", "token-1", "token-2"));
+		assertTrue(((String) sessions().get("f1")).startsWith(RefreshTokenStore.digest("token-2") + ":"));
+		assertEquals(RotationResult.ROTATED, store.rotateSession(USER_ID, "f1", "token-2", "token-3"));
+
+		assertEquals(RotationResult.NOT_FOUND, store.rotateSession(USER_ID, "missing", "token-3", "token-4"));
+	}
+
+	@Test
+	public void testReuseWithinGraceIsConflict() {
+		store.addSession(USER_ID, "f1", "token-1");
+		store.rotateSession(USER_ID, "f1", "token-1", "token-2");
+
+		// 宽限期内旧令牌再次出现视为并发刷新，令牌族保留
+		assertEquals(RotationResult.CONFLICT, store.rotateSession(USER_ID, "f1", "token-1", "token-x"));
+		assertTrue(sessions().containsKey("f1"));
+		assertEquals(RotationResult.ROTATED, store.rotateSession(USER_ID, "f1", "token-2", "token-3"));
+	}
+
+	@Test
+	public void testReuseDeletesFamily() {
+		store.addSession(USER_ID, "f1", "token-1");
+		store.addSession(USER_ID, "f2", "other-1");
+		store.rotateSession(USER_ID, "f1", "token-1", "token-2");
+
+		properties.setReuseGrace(-1);
+		assertEquals(RotationResult.REUSED, store.rotateSession(USER_ID, "f1", "token-1", "token-x"));
+		assertFalse(sessions().containsKey("f1"));
+		// 当前令牌同样失效，其他令牌族不受影响
+		assertEquals(RotationResult.NOT_FOUND, store.rotateSession(USER_ID, "f1", "token-2", "token-3"));
+		assertTrue(sessions().containsKey("f2"));
+
+		// 从未签发过的令牌同样视为重复使用
+		assertEquals(RotationResult.REUSED, store.rotateSession(USER_ID, "f2", "forged", "token-y"));
+		assertFalse(sessions().containsKey("f2"));
+	}
+
+	@Test
+	public void testExpiredSessionNotRotated() {
+		putSession("f1", RefreshTokenStore.digest("token-1"), System.currentTimeMillis() - 1000);
+
+		assertEquals(RotationResult.NOT_FOUND, store.rotateSession(USER_ID, "f1", "token-1", "token-2"));
+		assertFalse(sessions().containsKey("f1"));
+	}
+
+	@Test
+	public void testAddSessionPrunesExpired() {
+		long now = System.currentTimeMillis();
+		putSession("expired", "d1", now - 1000);
+		putSession("invalid", "d2", 0);
+		redisTemplate.opsForHash().put(SESSION_KEY, "malformed", "d3").block();
+
+		store.addSession(USER_ID, "f1", "token-1");
+
+		assertEquals(Map.of("f1", sessions().get("f1")), sessions());
+		assertTrue(redisTemplate.getExpire(SESSION_KEY).block().toMillis() > 0);
+	}
+
+	@Test
+	public void testMaxSessionsEvictsEarliestExpiry() {
+		long now = System.currentTimeMillis();
+		putSession("later", "d1", now + 20000);
+		putSession("earlier", "d2", now + 10000);
+
+		store.addSession(USER_ID, "f3", "token-3");
+
+		Map<Object, Object> sessions = sessions();
+		assertEquals(2, sessions.size());
+		assertTrue(sessions.containsKey("later"));
+		assertTrue(sessions.containsKey("f3"));
+	}
+}
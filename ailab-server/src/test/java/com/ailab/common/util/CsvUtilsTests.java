@@ -0,0 +1,30 @@
+package com.ailab.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvUtilsTests {
+
+	@Test
+	public void testEscapeRoundTrip() {
+		assertEquals("", CsvUtils.escape(null));
+		assertEquals("abc", CsvUtils.escape("abc"));
+		assertEquals("\"a,b\"", CsvUtils.escape("a,b"));
+		assertEquals("\"a\"\"b\"", CsvUtils.escape("a\"b"));
+		assertEquals(List.of("a,b", "a\"b", "c"), CsvUtils.parseLine(CsvUtils.escape("a,b") + ","
+				+ CsvUtils.escape("a\"b") + ",c"));
+	}
+
+	@Test
+	public void testEscapeFormula() {
+		assertEquals("'=1+1", CsvUtils.escape("=1+1"));
+		assertEquals("'+86", CsvUtils.escape("+86"));
+		assertEquals("'-2", CsvUtils.escape("-2"));
+		assertEquals("'@SUM(A1)", CsvUtils.escape("@SUM(A1)"));
+		assertEquals("\"'=HYPERLINK(\"\"x\"\",\"\"y\"\")\"", CsvUtils.escape("=HYPERLINK(\"x\",\"y\")"));
+		assertEquals("a=b", CsvUtils.escape("a=b"));
+	}
+}
@@ -0,0 +1,33 @@
+package com.ailab.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstancePoolTests {
+
+	@Test
+	public void testReuse() {
+		AtomicInteger created = new AtomicInteger();
+		InstancePool<Object> pool = new InstancePool<>(() -> {
+			created.incrementAndGet();
+			return new Object();
+		}, 1);
+
+		Object first = pool.borrow();
+		pool.release(first);
+		assertSame(first, pool.borrow());
+		assertEquals(1, created.get());
+
+		// 没有空闲实例时创建新实例，超过空闲上限的实例归还时丢弃
+		Object second = pool.borrow();
+		assertNotSame(first, second);
+		pool.release(first);
+		pool.release(second);
+		assertSame(first, pool.borrow());
+		pool.borrow();
+		assertEquals(3, created.get());
+	}
+}
@@ -0,0 +1,98 @@
+package com.ailab.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 使用随机生成的输入验证校验结果与原String.matches实现一致
+ */
+class RegexUtilsTests {
+
+	// 原实现使用的正则
+	private static final String EMAIL_REGEX = "^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$";
+	private static final String PASSWORD_REGEX = "^(?=.*[a-zA-Z])(?=.*\\d)[a-zA-Z\\d!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?.]{8,16}$";
+
+	// 随机输入使用的字符，包含各字符集的边界字符以及不允许的字符
+	private static final String ALPHABET = "aAzZmM09.5@-_%+!#$^&*()=[]{};':\"\\|,<>/?~` \n\t中é";
+
+	private static final int ITERATIONS = 200_000;
+
+	@Test
+	public void testEmailEquivalence() {
+		Random random = new Random(20250101L);
+		for (int i = 0; i < ITERATIONS; i++) {
+			String email = i % 2 == 0 ? randomString(random, 24) : mutate(random, "ab.c+d@ex-am.ple.com");
+			boolean expected = email.matches(EMAIL_REGEX);
+			assertEquals(expected, RegexUtils.isValidEmail(email), () -> "邮箱校验结果不一致: " + email);
+			assertEquals(expected, RegexUtils.isValidEmailByRegex(email));
+			assertEquals(!expected, RegexUtils.isInvalidEmail(email));
+		}
+	}
+
+	@Test
+	public void testPasswordEquivalence() {
+		Random random = new Random(20250102L);
+		for (int i = 0; i < ITERATIONS; i++) {
+			String password = i % 2 == 0 ? randomString(random, 20) : mutate(random, "Passw0rd!2024");
+			boolean expected = password.matches(PASSWORD_REGEX);
+			assertEquals(expected, RegexUtils.isValidPassword(password), () -> "密码校验结果不一致: " + password);
+			assertEquals(!expected, RegexUtils.isInvalidPassword(password));
+		}
+	}
+
+	@Test
+	public void testKnownValues() {
+		assertTrue(RegexUtils.isValidEmail("123@example.com"));
+		assertTrue(RegexUtils.isValidEmail("a@..co"));
+		assertFalse(RegexUtils.isValidEmail("a@.com"));
+		assertFalse(RegexUtils.isValidEmail("a@b.c"));
+		assertFalse(RegexUtils.isValidEmail("@b.com"));
+		assertFalse(RegexUtils.isValidEmail("a@b.com\n"));
+		assertFalse(RegexUtils.isValidEmail(null));
+		assertTrue(RegexUtils.isInvalidEmail(null));
+
+		assertTrue(RegexUtils.isValidPassword("abcd1234"));
+		assertFalse(RegexUtils.isValidPassword("abcdefgh"));
+		assertFalse(RegexUtils.isValidPassword("12345678"));
+		assertFalse(RegexUtils.isValidPassword("abc123"));
+		assertTrue(RegexUtils.isInvalidPassword(null));
+	}
+
+	private static String randomString(Random random, int maxLength) {
+		int length = random.nextInt(maxLength + 1);
+		StringBuilder builder = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			builder.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * 对合法样例进行随机的插入、删除、替换
+	 */
+	private static String mutate(Random random, String sample) {
+		StringBuilder builder = new StringBuilder(sample);
+		int mutations = random.nextInt(4);
+		for (int i = 0; i < mutations; i++) {
+			char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+			int position = random.nextInt(builder.length() + 1);
+			switch (random.nextInt(3)) {
+				case 0 -> builder.insert(position, c);
+				case 1 -> {
+					if (position < builder.length()) {
+						builder.deleteCharAt(position);
+					}
+				}
+				default -> {
+					if (position < builder.length()) {
+						builder.setCharAt(position, c);
+					}
+				}
+			}
+		}
+		return builder.toString();
+	}
+}
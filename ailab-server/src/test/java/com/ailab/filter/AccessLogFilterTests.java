@@ -0,0 +1,55 @@
+package com.ailab.filter;
+
+import com.ailab.common.properties.AccessLogProperties;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogFilterTests {
+
+	@Test
+	public void testSampling() {
+		AccessLogProperties properties = new AccessLogProperties();
+		properties.setSampleRate(0);
+		properties.setSlowThreshold(100);
+		AccessLogFilter filter = new AccessLogFilter(properties);
+
+		assertFalse(filter.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(5)));
+		assertFalse(filter.shouldLog(404, TimeUnit.MILLISECONDS.toNanos(5)));
+		// 服务器错误和慢请求不受采样比例影响
+		assertTrue(filter.shouldLog(500, TimeUnit.MILLISECONDS.toNanos(5)));
+		assertTrue(filter.shouldLog(200, TimeUnit.MILLISECONDS.toNanos(100)));
+
+		properties.setSampleRate(1);
+		assertTrue(filter.shouldLog(200, 0));
+	}
+
+	@Test
+	public void testAsyncRequest() throws Exception {
+		AccessLogFilter filter = new AccessLogFilter(new AccessLogProperties());
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/export");
+		request.setAsyncSupported(true);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		filter.doFilter(request, response, new MockFilterChain() {
+			@Override
+			public void doFilter(ServletRequest req, ServletResponse res) {
+				req.startAsync();
+			}
+		});
+
+		// 异步处理完成时注册的监听器负责记录
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		assertNotNull(asyncContext);
+		assertEquals(1, asyncContext.getListeners().size());
+		asyncContext.complete();
+	}
+}